@@ -2,38 +2,95 @@ package com.activepolicies.dashboard.api;
 
 import com.activepolicies.dashboard.utils.ConfigurationManager;
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.LogConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.filter.log.LogDetail;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Arrays;
 import java.util.Map;
 
 /**
- * Client for making API requests
+ * Client for making API requests.
+ *
+ * Each client owns its base URI, configuration and filters instead of using the
+ * global RestAssured settings, so clients for different environments can be used
+ * from parallel tests. Requests share keep-alive connections through HttpConnectionPool.
+ *
+ * Streaming requests use a separate specification without the client's filters and
+ * failure logging, since both read the whole body into memory before it is returned.
  */
 public class ApiClient {
     private static final Logger logger = LogManager.getLogger(ApiClient.class);
-    private final ConfigurationManager config;
-    private String token;
+    private final RequestSpecification baseSpec;
+    private final RequestSpecification streamingSpec;
+    private final String baseUri;
+    private volatile String token;
+    // Set by authenticate; requests then take the current token from TokenCache
+    private volatile LoginRequest credentials;
+    
+    /**
+     * Constructor using base.api.url
+     * @param filters Filters applied to every request, e.g. reporting
+     */
+    public ApiClient(Filter... filters) {
+        this(getConfiguredBaseUri(), filters);
+    }
     
     /**
      * Constructor
+     * @param baseUri API base URI
+     * @param filters Filters applied to every request, e.g. reporting
      */
-    public ApiClient() {
-        config = ConfigurationManager.getInstance();
-        String baseApiUrl = config.getProperty("base.api.url", 
-                config.getProperty("base.url") + "/api");
+    public ApiClient(String baseUri, Filter... filters) {
+        this.baseUri = baseUri;
+        
+        RestAssuredConfig streamingConfig = RestAssuredConfig.config()
+                .httpClient(HttpConnectionPool.httpClientConfig());
+        RestAssuredConfig restAssuredConfig = streamingConfig
+                .logConfig(LogConfig.logConfig().enableLoggingOfRequestAndResponseIfValidationFails(LogDetail.ALL));
+        
+        this.baseSpec = new RequestSpecBuilder()
+                .setBaseUri(baseUri)
+                .setConfig(restAssuredConfig)
+                .setContentType(ContentType.JSON)
+                .addFilters(Arrays.asList(filters))
+                .build();
         
-        RestAssured.baseURI = baseApiUrl;
+        this.streamingSpec = new RequestSpecBuilder()
+                .setBaseUri(baseUri)
+                .setConfig(streamingConfig)
+                .setContentType(ContentType.JSON)
+                .build();
+        
+        logger.info("API client for base URI: {}", baseUri);
+    }
+    
+    private static String getConfiguredBaseUri() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        return config.getProperty("base.api.url", config.getProperty("base.url") + "/api");
     }
     
     /**
-     * Sets authorization token
+     * Gets the base URI requests are sent to
+     * @return Base URI
+     */
+    public String getBaseUri() {
+        return baseUri;
+    }
+    
+    /**
+     * Sets authorization token, replacing any token managed by authenticate
      * @param token Authorization token
      */
     public void setToken(String token) {
+        this.credentials = null;
         this.token = token;
     }
     
@@ -42,16 +99,39 @@ public class ApiClient {
      * @return Request specification
      */
     private RequestSpecification createRequest() {
-        RequestSpecification request = RestAssured.given()
-                .contentType(ContentType.JSON);
+        return createRequest(baseSpec);
+    }
+    
+    /**
+     * Creates a request specification from the given base specification
+     * @param spec Base specification
+     * @return Request specification
+     */
+    private RequestSpecification createRequest(RequestSpecification spec) {
+        RequestSpecification request = RestAssured.given(spec);
         
-        if (token != null && !token.isEmpty()) {
-            request.header("Authorization", "Bearer " + token);
+        String currentToken = currentToken();
+        if (currentToken != null && !currentToken.isEmpty()) {
+            request.header("Authorization", "Bearer " + currentToken);
         }
         
         return request;
     }
     
+    /**
+     * Gets the token to send: for an authenticated client the user's current token
+     * from TokenCache, so background refreshes reach long-lived clients
+     * @return Token, or null if none is set
+     */
+    private String currentToken() {
+        LoginRequest login = credentials;
+        if (login != null) {
+            token = TokenCache.getInstance().getToken(baseUri, login.getUsername(),
+                    () -> login(login.getUsername(), login.getPassword()));
+        }
+        return token;
+    }
+    
     /**
      * Performs GET request
      * @param endpoint API endpoint
@@ -73,6 +153,19 @@ public class ApiClient {
         return createRequest().queryParams(queryParams).get(endpoint);
     }
     
+    /**
+     * Performs GET request without buffering the response body. The caller must read
+     * and close response.asInputStream() to release the connection. Filters and
+     * failure logging are not applied.
+     * @param endpoint API endpoint
+     * @param queryParams Query parameters
+     * @return Response with an unread body
+     */
+    public Response getStreaming(String endpoint, Map<String, Object> queryParams) {
+        logger.info("Making streaming GET request to: {} with params: {}", endpoint, queryParams);
+        return createRequest(streamingSpec).queryParams(queryParams).get(endpoint);
+    }
+    
     /**
      * Performs POST request
      * @param endpoint API endpoint
@@ -117,24 +210,46 @@ public class ApiClient {
     }
     
     /**
-     * Gets authentication token
+     * Gets authentication token from the shared TokenCache, logging in only if
+     * the user has no valid token for this base URI yet. Later requests of this
+     * client send whatever token the cache holds for the user at the time.
      * @param username Username
      * @param password Password
      * @return Token
      */
     public String authenticate(String username, String password) {
+        credentials = new LoginRequest(username, password);
+        return currentToken();
+    }
+    
+    /**
+     * Drops the user's cached token and logs in again, e.g. after a 401
+     * @param username Username
+     * @param password Password
+     * @return New token
+     */
+    public String reauthenticate(String username, String password) {
+        TokenCache.getInstance().invalidate(baseUri, username);
+        return authenticate(username, password);
+    }
+    
+    /**
+     * Posts credentials to the login endpoint
+     * @param username Username
+     * @param password Password
+     * @return Token
+     */
+    private String login(String username, String password) {
         logger.info("Authenticating user: {}", username);
         
         LoginRequest loginRequest = new LoginRequest(username, password);
         
-        Response response = RestAssured.given()
-                .contentType(ContentType.JSON)
+        Response response = RestAssured.given(baseSpec)
                 .body(loginRequest)
                 .post("/auth/login");
         
         if (response.getStatusCode() == 200) {
-            token = response.jsonPath().getString("token");
-            return token;
+            return response.jsonPath().getString("token");
         } else {
             logger.error("Authentication failed with status code: {}", response.getStatusCode());
             throw new RuntimeException("Authentication failed: " + response.getStatusCode());
@@ -0,0 +1,93 @@
+package com.activepolicies.dashboard.api;
+
+import com.activepolicies.dashboard.utils.ConfigurationManager;
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Process-wide pool of keep-alive HTTP connections shared by every ApiClient.
+ *
+ * REST Assured builds a new HttpClient for each request and shuts its connection
+ * manager down afterwards, so by default every request opens a new connection.
+ * Here each request gets a lightweight client over the one shared, thread-safe
+ * connection manager, whose shutdown is ignored until the JVM exits. Connections
+ * are limited by api.pool.max.total overall and api.pool.max.per.route per host.
+ */
+@SuppressWarnings("deprecation")
+public final class HttpConnectionPool {
+    private static final Logger logger = LogManager.getLogger(HttpConnectionPool.class);
+    private static volatile SharedConnectionManager connectionManager;
+
+    private HttpConnectionPool() {
+    }
+
+    /**
+     * Gets the REST Assured client configuration that routes requests through the shared pool
+     * @return HTTP client configuration
+     */
+    public static HttpClientConfig httpClientConfig() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        SharedConnectionManager manager = getConnectionManager();
+
+        return HttpClientConfig.httpClientConfig()
+                .httpClientFactory(() -> new DefaultHttpClient(manager))
+                .setParam("http.connection.timeout",
+                        Integer.parseInt(config.getProperty("api.connect.timeout.ms", "10000")))
+                .setParam("http.socket.timeout",
+                        Integer.parseInt(config.getProperty("api.socket.timeout.ms", "30000")));
+    }
+
+    /**
+     * Gets leased, available and pending connection counts across all routes
+     * @return Pool statistics
+     */
+    public static PoolStats getStats() {
+        return getConnectionManager().getTotalStats();
+    }
+
+    private static SharedConnectionManager getConnectionManager() {
+        SharedConnectionManager manager = connectionManager;
+        if (manager == null) {
+            synchronized (HttpConnectionPool.class) {
+                manager = connectionManager;
+                if (manager == null) {
+                    manager = createConnectionManager();
+                    connectionManager = manager;
+                }
+            }
+        }
+        return manager;
+    }
+
+    private static SharedConnectionManager createConnectionManager() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        int maxTotal = Integer.parseInt(config.getProperty("api.pool.max.total", "50"));
+        int maxPerRoute = Integer.parseInt(config.getProperty("api.pool.max.per.route", "10"));
+
+        SharedConnectionManager manager = new SharedConnectionManager();
+        manager.setMaxTotal(maxTotal);
+        manager.setDefaultMaxPerRoute(maxPerRoute);
+        Runtime.getRuntime().addShutdownHook(new Thread(manager::close, "http-pool-shutdown"));
+
+        logger.info("Created HTTP connection pool (max total: {}, max per route: {})", maxTotal, maxPerRoute);
+        return manager;
+    }
+
+    /**
+     * Connection manager that survives REST Assured shutting down each per-request client
+     */
+    private static class SharedConnectionManager extends PoolingClientConnectionManager {
+        @Override
+        public void shutdown() {
+            // Shared by all clients: closed only by the shutdown hook
+        }
+
+        void close() {
+            super.shutdown();
+        }
+    }
+}
@@ -1,25 +1,65 @@
 package com.activepolicies.dashboard.api;
 
+import com.activepolicies.dashboard.utils.ConfigurationManager;
+import com.activepolicies.dashboard.utils.TaskExecutors;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import io.restassured.response.Response;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
 /**
- * Service for interacting with Policy API endpoints
+ * Service for interacting with Policy API endpoints.
+ *
+ * Async variants queue requests per service and hand them to a shared elastic executor
+ * once one of the service's api.async.max.concurrent permits is free, so each service is
+ * bound only by its own limit; bulk helpers fan out over them and gather the results in input order.
+ *
+ * The forEachPolicy methods read policy lists with a pull parser as the body arrives and
+ * hand each policy to a callback, so large lists are counted, checked or aggregated in
+ * constant memory instead of being loaded into a JsonPath object graph.
  */
 public class PolicyApiService {
     private static final Logger logger = LogManager.getLogger(PolicyApiService.class);
+    private static final JsonFactory jsonFactory = new JsonFactory();
+    private static volatile ExecutorService asyncExecutor;
     private final ApiClient apiClient;
+    private final Semaphore limiter;
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
     
     /**
      * Constructor
      * @param apiClient API client
      */
     public PolicyApiService(ApiClient apiClient) {
+        this(apiClient, Integer.parseInt(ConfigurationManager.getInstance().getProperty("api.async.max.concurrent", "8")));
+    }
+    
+    /**
+     * Constructor
+     * @param apiClient API client
+     * @param maxConcurrent Maximum number of async requests in flight at once
+     */
+    public PolicyApiService(ApiClient apiClient, int maxConcurrent) {
         this.apiClient = apiClient;
+        this.limiter = new Semaphore(Math.max(1, maxConcurrent));
     }
     
     /**
@@ -130,4 +170,334 @@ public class PolicyApiService {
         queryParams.put("type", policyType);
         return apiClient.get("/policies/statistics", queryParams);
     }
+    
+    /**
+     * Streams all policies to the callback without loading the response into memory
+     * @param callback Policy callback
+     * @return Number of policies processed
+     */
+    public long forEachPolicy(PolicyCallback callback) {
+        logger.info("Streaming all policies");
+        return streamPolicies(new HashMap<>(), callback);
+    }
+    
+    /**
+     * Streams policies of a type to the callback without loading the response into memory
+     * @param policyType Policy type
+     * @param callback Policy callback
+     * @return Number of policies processed
+     */
+    public long forEachPolicyByType(String policyType, PolicyCallback callback) {
+        logger.info("Streaming policies by type: {}", policyType);
+        Map<String, Object> queryParams = new HashMap<>();
+        queryParams.put("type", policyType);
+        return streamPolicies(queryParams, callback);
+    }
+    
+    /**
+     * Streams policies in a date range to the callback without loading the response into memory
+     * @param startDate Start date
+     * @param endDate End date
+     * @param callback Policy callback
+     * @return Number of policies processed
+     */
+    public long forEachPolicyByDateRange(String startDate, String endDate, PolicyCallback callback) {
+        logger.info("Streaming policies by date range: {} to {}", startDate, endDate);
+        Map<String, Object> queryParams = new HashMap<>();
+        queryParams.put("startDate", startDate);
+        queryParams.put("endDate", endDate);
+        return streamPolicies(queryParams, callback);
+    }
+    
+    /**
+     * Streams policies of a customer to the callback without loading the response into memory
+     * @param customerId Customer ID
+     * @param callback Policy callback
+     * @return Number of policies processed
+     */
+    public long forEachPolicyByCustomer(String customerId, PolicyCallback callback) {
+        logger.info("Streaming policies by customer: {}", customerId);
+        Map<String, Object> queryParams = new HashMap<>();
+        queryParams.put("customerId", customerId);
+        return streamPolicies(queryParams, callback);
+    }
+    
+    /**
+     * Sends a policies list request and parses the JSON array one policy at a time
+     * @param queryParams Query parameters
+     * @param callback Policy callback
+     * @return Number of policies processed
+     */
+    private long streamPolicies(Map<String, Object> queryParams, PolicyCallback callback) {
+        Response response = apiClient.getStreaming("/policies", queryParams);
+        
+        try (InputStream body = response.asInputStream();
+             JsonParser parser = jsonFactory.createParser(body)) {
+            if (response.getStatusCode() != 200) {
+                throw new RuntimeException("Failed to stream policies: HTTP " + response.getStatusCode());
+            }
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array of policies");
+            }
+            
+            long count = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                callback.onPolicy(PolicyRecord.read(parser));
+                count++;
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Expected a policy object but found " + parser.currentToken());
+            }
+            
+            logger.info("Streamed {} policies", count);
+            return count;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read policies response", e);
+        }
+    }
+    
+    /**
+     * Gets all policies asynchronously
+     * @return Future response with policies
+     */
+    public CompletableFuture<Response> getAllPoliciesAsync() {
+        return submit(this::getAllPolicies);
+    }
+    
+    /**
+     * Gets policies by type asynchronously
+     * @param policyType Policy type
+     * @return Future response with policies
+     */
+    public CompletableFuture<Response> getPoliciesByTypeAsync(String policyType) {
+        return submit(() -> getPoliciesByType(policyType));
+    }
+    
+    /**
+     * Gets policy by ID asynchronously
+     * @param policyId Policy ID
+     * @return Future response with policy
+     */
+    public CompletableFuture<Response> getPolicyByIdAsync(String policyId) {
+        return submit(() -> getPolicyById(policyId));
+    }
+    
+    /**
+     * Creates a new policy asynchronously
+     * @param policyData Policy data
+     * @return Future response with created policy
+     */
+    public CompletableFuture<Response> createPolicyAsync(Map<String, Object> policyData) {
+        return submit(() -> createPolicy(policyData));
+    }
+    
+    /**
+     * Updates policy asynchronously
+     * @param policyId Policy ID
+     * @param policyData Policy data
+     * @return Future response with updated policy
+     */
+    public CompletableFuture<Response> updatePolicyAsync(String policyId, Map<String, Object> policyData) {
+        return submit(() -> updatePolicy(policyId, policyData));
+    }
+    
+    /**
+     * Deletes policy asynchronously
+     * @param policyId Policy ID
+     * @return Future response
+     */
+    public CompletableFuture<Response> deletePolicyAsync(String policyId) {
+        return submit(() -> deletePolicy(policyId));
+    }
+    
+    /**
+     * Gets policy statistics asynchronously
+     * @return Future response with policy statistics
+     */
+    public CompletableFuture<Response> getPolicyStatisticsAsync() {
+        return submit(this::getPolicyStatistics);
+    }
+    
+    /**
+     * Gets many policies by ID concurrently
+     * @param policyIds Policy IDs
+     * @return One result per ID, in the order the IDs were given
+     */
+    public List<ItemResult<String>> getPoliciesByIds(Collection<String> policyIds) {
+        logger.info("Getting {} policies by ID", policyIds.size());
+        List<String> keys = new ArrayList<>(policyIds);
+        List<CompletableFuture<Response>> futures = new ArrayList<>(keys.size());
+        for (String policyId : keys) {
+            futures.add(getPolicyByIdAsync(policyId));
+        }
+        return gather(keys, futures);
+    }
+    
+    /**
+     * Creates many policies concurrently, e.g. test fixtures
+     * @param policies Policy data
+     * @return One result per policy, in the order the policies were given
+     */
+    public List<ItemResult<Map<String, Object>>> createPolicies(List<Map<String, Object>> policies) {
+        logger.info("Creating {} policies", policies.size());
+        List<CompletableFuture<Response>> futures = new ArrayList<>(policies.size());
+        for (Map<String, Object> policyData : policies) {
+            futures.add(createPolicyAsync(policyData));
+        }
+        return gather(policies, futures);
+    }
+    
+    /**
+     * Deletes many policies concurrently, e.g. fixture cleanup
+     * @param policyIds Policy IDs
+     * @return One result per ID, in the order the IDs were given
+     */
+    public List<ItemResult<String>> deletePolicies(Collection<String> policyIds) {
+        logger.info("Deleting {} policies", policyIds.size());
+        List<String> keys = new ArrayList<>(policyIds);
+        List<CompletableFuture<Response>> futures = new ArrayList<>(keys.size());
+        for (String policyId : keys) {
+            futures.add(deletePolicyAsync(policyId));
+        }
+        return gather(keys, futures);
+    }
+    
+    /**
+     * Queues a request to run on the shared executor once a permit of this service's limiter is free
+     * @param request Blocking request
+     * @return Future response
+     */
+    private CompletableFuture<Response> submit(Supplier<Response> request) {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        pending.add(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(request.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        dispatch();
+        return future;
+    }
+    
+    /**
+     * Hands queued requests to the executor while permits are free. Permits are taken
+     * before dispatch, so no executor thread waits on them; each finished request
+     * releases its permit and dispatches the next.
+     */
+    private void dispatch() {
+        while (!pending.isEmpty() && limiter.tryAcquire()) {
+            Runnable task = pending.poll();
+            if (task == null) {
+                limiter.release();
+                continue;
+            }
+            getAsyncExecutor().execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    limiter.release();
+                    dispatch();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Waits for every request and pairs each outcome with its input, keeping failures per item
+     */
+    private static <K> List<ItemResult<K>> gather(List<K> keys, List<CompletableFuture<Response>> futures) {
+        List<ItemResult<K>> results = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            try {
+                results.add(new ItemResult<>(keys.get(i), futures.get(i).join(), null));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.warn("Request for {} failed: {}", keys.get(i), cause.toString());
+                results.add(new ItemResult<>(keys.get(i), null, cause));
+            }
+        }
+        return results;
+    }
+    
+    private static ExecutorService getAsyncExecutor() {
+        ExecutorService executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (PolicyApiService.class) {
+                executor = asyncExecutor;
+                if (executor == null) {
+                    executor = TaskExecutors.newElasticExecutor("policy-api");
+                    asyncExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+    
+    /**
+     * Callback receiving policies from a streamed policies list
+     */
+    @FunctionalInterface
+    public interface PolicyCallback {
+        /**
+         * Handles a single policy; throwing stops reading the list
+         * @param policy Policy record
+         */
+        void onPolicy(PolicyRecord policy);
+    }
+    
+    /**
+     * Outcome of one request of a bulk call: the response, or the error that prevented it
+     */
+    public static class ItemResult<K> {
+        private final K key;
+        private final Response response;
+        private final Throwable error;
+        
+        ItemResult(K key, Response response, Throwable error) {
+            this.key = key;
+            this.response = response;
+            this.error = error;
+        }
+        
+        /**
+         * Gets the input the request was made for, e.g. the policy ID
+         * @return Request input
+         */
+        public K getKey() {
+            return key;
+        }
+        
+        /**
+         * Gets the response
+         * @return Response, or null if the request failed without one
+         */
+        public Response getResponse() {
+            return response;
+        }
+        
+        /**
+         * Gets the error that prevented a response, e.g. a connection failure
+         * @return Error, or null if a response was received
+         */
+        public Throwable getError() {
+            return error;
+        }
+        
+        /**
+         * Checks if a response with a 2xx status code was received
+         * @return true if the request succeeded
+         */
+        public boolean isSuccess() {
+            return response != null && response.getStatusCode() >= 200 && response.getStatusCode() < 300;
+        }
+        
+        @Override
+        public String toString() {
+            return key + ": " + (response != null ? "HTTP " + response.getStatusCode() : "error " + error);
+        }
+    }
 }
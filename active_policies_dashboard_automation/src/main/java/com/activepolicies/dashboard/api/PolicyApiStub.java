@@ -0,0 +1,712 @@
+package com.activepolicies.dashboard.api;
+
+import com.activepolicies.dashboard.utils.ConfigurationManager;
+import com.activepolicies.dashboard.utils.PolicyDataGenerator;
+import com.activepolicies.dashboard.utils.TaskExecutors;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * In-process stand-in for the policies API on the JDK HTTP server, for offline runs
+ * and benchmarks of the API client code. Enabled for BaseApiTest with api.stub.enabled.
+ *
+ * Serves under /api: POST /auth/login issuing JWTs, GET and POST /policies (filters
+ * type, startDate, endDate and customerId), GET, PUT, PATCH and DELETE /policies/{id}
+ * and GET /policies/statistics (filter type). Policies live in a concurrent in-memory
+ * store seeded from the policy test data CSV or PolicyDataGenerator.
+ *
+ * Latency and errors can be injected into the policies endpoints. Whether a request
+ * fails and how long it is delayed depend only on the seed and the request's sequence
+ * number, so a run of N requests always sees the same number of injected failures.
+ */
+public class PolicyApiStub implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(PolicyApiStub.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String BASE_PATH = "/api";
+    private static final String POLICIES_PATH = BASE_PATH + "/policies";
+    private static PolicyApiStub shared;
+
+    private final String username;
+    private final String password;
+    private final boolean requireAuth;
+    private final Duration tokenLifetime;
+    private final long seed;
+    private final int threads;
+    private final int port;
+    // Policies by policy number, so lists come out in ID order
+    private final ConcurrentNavigableMap<Long, Map<String, Object>> policies = new ConcurrentSkipListMap<>();
+    private final Map<String, String> customerIds = new ConcurrentHashMap<>();
+    private final Map<String, Long> issuedTokens = new ConcurrentHashMap<>();
+    private final AtomicLong nextPolicyNumber = new AtomicLong(1);
+    private final AtomicLong nextCustomerNumber = new AtomicLong(1);
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong injectedErrorCount = new AtomicLong();
+    private volatile long latencyNanos;
+    private volatile long jitterNanos;
+    private volatile double errorRate;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private PolicyApiStub(Builder builder) {
+        this.username = builder.username;
+        this.password = builder.password;
+        this.requireAuth = builder.requireAuth;
+        this.tokenLifetime = builder.tokenLifetime;
+        this.seed = builder.seed;
+        this.threads = builder.threads;
+        this.port = builder.port;
+        this.latencyNanos = builder.latency.toNanos();
+        this.jitterNanos = builder.jitter.toNanos();
+        this.errorRate = builder.errorRate;
+
+        for (Map<String, Object> policy : builder.seedPolicies) {
+            store(policy);
+        }
+    }
+
+    /**
+     * Creates a stub builder without policies, accepting the configured admin credentials
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a stub builder from api.stub.* properties
+     * @return Builder
+     */
+    public static Builder fromConfig() {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        Builder builder = new Builder()
+                .port(Integer.parseInt(config.getProperty("api.stub.port", "0")))
+                .latency(Duration.ofMillis(Long.parseLong(config.getProperty("api.stub.latency.ms", "0"))),
+                        Duration.ofMillis(Long.parseLong(config.getProperty("api.stub.latency.jitter.ms", "0"))))
+                .errorRate(Double.parseDouble(config.getProperty("api.stub.error.rate", "0")))
+                .seed(Long.parseLong(config.getProperty("api.stub.random.seed", "42")));
+
+        String seedSource = config.getProperty("api.stub.seed", "csv");
+        switch (seedSource) {
+            case "csv":
+                return builder.seedFromCsv(config.getProperty("api.stub.seed.file",
+                        config.getProperty("test.data.dir", "src/test/resources/test-data") + "/policy_test_data.csv"));
+            case "generated":
+                return builder.seedGenerated(Integer.parseInt(config.getProperty("api.stub.seed.rows", "10000")));
+            case "none":
+                return builder;
+            default:
+                throw new IllegalArgumentException("Unsupported API stub seed source: " + seedSource);
+        }
+    }
+
+    /**
+     * Checks if the stub is enabled for the current environment
+     * @param config Configuration manager
+     * @return true if api.stub.enabled is set
+     */
+    public static boolean isEnabled(ConfigurationManager config) {
+        return Boolean.parseBoolean(config.getProperty("api.stub.enabled", "false"));
+    }
+
+    /**
+     * Gets the process-wide stub configured by api.stub.*, starting it on first use.
+     * It is stopped when the JVM exits.
+     * @return Running stub
+     */
+    public static synchronized PolicyApiStub getShared() {
+        if (shared == null) {
+            PolicyApiStub stub = fromConfig().build().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(stub::close, "policy-api-stub-shutdown"));
+            shared = stub;
+        }
+        return shared;
+    }
+
+    /**
+     * Starts serving on the loopback interface
+     * @return This stub
+     */
+    public synchronized PolicyApiStub start() {
+        if (server != null) {
+            return this;
+        }
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start policy API stub on port " + port, e);
+        }
+        server.createContext(BASE_PATH + "/auth/login", exchange -> handle(exchange, false, this::handleLogin));
+        server.createContext(POLICIES_PATH, exchange -> handle(exchange, true, this::handlePolicies));
+        executor = TaskExecutors.newExecutor("policy-api-stub", threads);
+        server.setExecutor(executor);
+        server.start();
+
+        logger.info("Policy API stub serving {} policies at {}", policies.size(), getBaseUri());
+        return this;
+    }
+
+    /**
+     * Gets the base URI to give ApiClient
+     * @return Base URI, e.g. http://127.0.0.1:54321/api
+     */
+    public String getBaseUri() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + BASE_PATH;
+    }
+
+    /**
+     * Sets the latency added to each policies request
+     * @param latency Fixed delay
+     * @param jitter Maximum extra random delay
+     */
+    public void setLatency(Duration latency, Duration jitter) {
+        this.latencyNanos = latency.toNanos();
+        this.jitterNanos = jitter.toNanos();
+    }
+
+    /**
+     * Sets the fraction of policies requests answered with 503 Service Unavailable
+     * @param errorRate Error rate between 0 and 1
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrorCount.get();
+    }
+
+    public int getPolicyCount() {
+        return policies.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+            logger.info("Policy API stub stopped after {} requests ({} injected errors)",
+                    requestCount.get(), injectedErrorCount.get());
+        }
+    }
+
+    /**
+     * Runs a handler with fault injection and authentication, turning failures into error responses
+     */
+    private void handle(HttpExchange exchange, boolean injectFaults, Handler handler) throws IOException {
+        try {
+            long requestNumber = requestCount.incrementAndGet();
+
+            if (injectFaults) {
+                long delay = latencyNanos + (long) (jitterNanos * unitRandom(requestNumber, 1));
+                if (delay > 0) {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                }
+                if (errorRate > 0 && unitRandom(requestNumber, 2) < errorRate) {
+                    injectedErrorCount.incrementAndGet();
+                    sendError(exchange, 503, "Injected failure");
+                    return;
+                }
+                if (requireAuth && !isAuthorized(exchange)) {
+                    sendError(exchange, 401, "Missing or invalid token");
+                    return;
+                }
+            }
+
+            handler.handle(exchange);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Policy API stub failed on {} {}: {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.toString());
+            sendError(exchange, 500, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Method not allowed");
+            return;
+        }
+
+        Map<String, Object> credentials = readBody(exchange);
+        if (credentials == null || !username.equals(credentials.get("username"))
+                || !password.equals(credentials.get("password"))) {
+            sendError(exchange, 401, "Invalid credentials");
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long expiresAt = now + tokenLifetime.toMillis();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", username);
+        claims.put("iat", TimeUnit.MILLISECONDS.toSeconds(now));
+        claims.put("exp", TimeUnit.MILLISECONDS.toSeconds(expiresAt));
+        claims.put("jti", requestCount.get());
+        String token = encoder.encodeToString("{\"alg\":\"none\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(objectMapper.writeValueAsBytes(claims)) + ".stub";
+        issuedTokens.put(token, expiresAt);
+
+        sendJson(exchange, 200, Collections.singletonMap("token", token));
+    }
+
+    private void handlePolicies(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath().substring(POLICIES_PATH.length());
+        String method = exchange.getRequestMethod();
+        Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        if (path.isEmpty() || "/".equals(path)) {
+            if ("GET".equals(method)) {
+                sendPolicies(exchange, filter(params));
+            } else if ("POST".equals(method)) {
+                createPolicy(exchange);
+            } else {
+                sendError(exchange, 405, "Method not allowed");
+            }
+            return;
+        }
+
+        String policyId = URLDecoder.decode(path.substring(1), StandardCharsets.UTF_8);
+        if ("statistics".equals(policyId) && "GET".equals(method)) {
+            sendJson(exchange, 200, statistics(params.get("type")));
+            return;
+        }
+
+        Long policyNumber = toPolicyNumber(policyId);
+        Map<String, Object> policy = policyNumber == null ? null : policies.get(policyNumber);
+        if (policy == null || !policyId.equals(policy.get("id"))) {
+            sendError(exchange, 404, "Policy not found: " + policyId);
+            return;
+        }
+
+        switch (method) {
+            case "GET":
+                sendJson(exchange, 200, policy);
+                break;
+            case "PUT":
+            case "PATCH":
+                Map<String, Object> changes = readBody(exchange);
+                if (changes == null) {
+                    sendError(exchange, 400, "Request body must be a JSON object");
+                    return;
+                }
+                Map<String, Object> updated = policies.computeIfPresent(policyNumber, (number, current) -> {
+                    Map<String, Object> merged = new LinkedHashMap<>(current);
+                    merged.putAll(changes);
+                    merged.put("id", current.get("id"));
+                    return Collections.unmodifiableMap(merged);
+                });
+                if (updated == null) {
+                    sendError(exchange, 404, "Policy not found: " + policyId);
+                } else {
+                    sendJson(exchange, 200, updated);
+                }
+                break;
+            case "DELETE":
+                if (policies.remove(policyNumber) != null) {
+                    exchange.sendResponseHeaders(204, -1);
+                } else {
+                    sendError(exchange, 404, "Policy not found: " + policyId);
+                }
+                break;
+            default:
+                sendError(exchange, 405, "Method not allowed");
+        }
+    }
+
+    private void createPolicy(HttpExchange exchange) throws IOException {
+        Map<String, Object> policyData = readBody(exchange);
+        if (policyData == null || policyData.get("type") == null) {
+            sendError(exchange, 400, "Policy type is required");
+            return;
+        }
+
+        // The stub assigns IDs to created policies, so a client ID cannot overwrite a stored policy
+        policyData.remove("id");
+        policyData.remove("policyId");
+        sendJson(exchange, 201, store(policyData));
+    }
+
+    /**
+     * Stores a policy under its own ID, or the next free POL-n ID if it has none
+     */
+    private Map<String, Object> store(Map<String, Object> policyData) {
+        Map<String, Object> policy = new LinkedHashMap<>();
+        Object givenId = policyData.containsKey("id") ? policyData.get("id") : policyData.get("policyId");
+        Long policyNumber = givenId == null ? null : toPolicyNumber(givenId.toString());
+
+        if (policyNumber == null) {
+            policyNumber = nextPolicyNumber.getAndIncrement();
+            policy.put("id", "POL-" + policyNumber);
+        } else {
+            policy.put("id", givenId.toString());
+            nextPolicyNumber.accumulateAndGet(policyNumber + 1, Math::max);
+        }
+
+        for (Map.Entry<String, Object> field : policyData.entrySet()) {
+            if (!"id".equals(field.getKey()) && !"policyId".equals(field.getKey())) {
+                policy.put(field.getKey(), field.getValue());
+            }
+        }
+        if (!policy.containsKey("customerId") && policy.get("customerEmail") != null) {
+            String email = policy.get("customerEmail").toString().toLowerCase();
+            policy.put("customerId", customerIds.computeIfAbsent(email, key -> "CUST-" + nextCustomerNumber.getAndIncrement()));
+        }
+
+        Map<String, Object> stored = Collections.unmodifiableMap(policy);
+        policies.put(policyNumber, stored);
+        return stored;
+    }
+
+    /**
+     * Builds the list filter: exact type and customer, and the policy term within
+     * startDate..endDate, matching PolicyDatabaseService.getPoliciesByDateRange
+     */
+    private Predicate<Map<String, Object>> filter(Map<String, String> params) {
+        String type = params.get("type");
+        String customerId = params.get("customerId");
+        String startDate = params.get("startDate");
+        String endDate = params.get("endDate");
+
+        return policy -> (type == null || type.equals(policy.get("type")))
+                && (customerId == null || customerId.equals(String.valueOf(policy.get("customerId"))))
+                && (startDate == null || String.valueOf(policy.get("startDate")).compareTo(startDate) >= 0)
+                && (endDate == null || String.valueOf(policy.get("endDate")).compareTo(endDate) <= 0);
+    }
+
+    /**
+     * Streams matching policies as a JSON array without building the whole response in memory
+     */
+    private void sendPolicies(HttpExchange exchange, Predicate<Map<String, Object>> filter) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+
+        try (OutputStream output = exchange.getResponseBody();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.writeStartArray();
+            for (Map<String, Object> policy : policies.values()) {
+                if (filter.test(policy)) {
+                    objectMapper.writeValue(generator, policy);
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private Map<String, Object> statistics(String type) {
+        long count = 0;
+        double totalPremium = 0;
+        Map<String, Long> byType = new TreeMap<>();
+        Map<String, Long> byStatus = new TreeMap<>();
+
+        for (Map<String, Object> policy : policies.values()) {
+            if (type != null && !type.equals(policy.get("type"))) {
+                continue;
+            }
+            count++;
+            Object premium = policy.get("premium");
+            if (premium != null) {
+                totalPremium += premium instanceof Number
+                        ? ((Number) premium).doubleValue() : Double.parseDouble(premium.toString());
+            }
+            byType.merge(String.valueOf(policy.get("type")), 1L, Long::sum);
+            byStatus.merge(String.valueOf(policy.get("status")), 1L, Long::sum);
+        }
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("totalPolicies", count);
+        statistics.put("totalPremium", Math.round(totalPremium * 100) / 100.0);
+        statistics.put("averagePremium", count == 0 ? 0 : Math.round(totalPremium / count * 100) / 100.0);
+        statistics.put("policiesByType", byType);
+        statistics.put("policiesByStatus", byStatus);
+        return statistics;
+    }
+
+    private boolean isAuthorized(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return false;
+        }
+        Long expiresAt = issuedTokens.get(authorization.substring("Bearer ".length()));
+        return expiresAt != null && System.currentTimeMillis() < expiresAt;
+    }
+
+    /**
+     * Gets a uniformly distributed value in [0, 1) from the seed, request number and purpose
+     */
+    private double unitRandom(long requestNumber, int purpose) {
+        // SplitMix64 finalizer, so neighbouring requests get unrelated values
+        long z = seed + requestNumber * 0x9E3779B97F4A7C15L + purpose * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    private static Long toPolicyNumber(String policyId) {
+        String digits = policyId.replaceAll("\\D", "");
+        if (digits.isEmpty() || digits.length() > 18) {
+            return null;
+        }
+        return Long.parseLong(digits);
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream input = exchange.getRequestBody()) {
+            byte[] body = input.readAllBytes();
+            if (body.length == 0) {
+                return null;
+            }
+            Object value = objectMapper.readValue(body, Object.class);
+            if (!(value instanceof Map)) {
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> map = new LinkedHashMap<>((Map<String, Object>) value);
+            return map;
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        try {
+            sendJson(exchange, status, Collections.singletonMap("error", message));
+        } catch (IOException e) {
+            logger.debug("Failed to send {} response: {}", status, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Builder for PolicyApiStub
+     */
+    public static class Builder {
+        private final List<Map<String, Object>> seedPolicies = new ArrayList<>();
+        private String username;
+        private String password;
+        private boolean requireAuth = true;
+        private Duration tokenLifetime = Duration.ofHours(1);
+        private Duration latency = Duration.ZERO;
+        private Duration jitter = Duration.ZERO;
+        private double errorRate;
+        private long seed = 42;
+        private int threads = 32;
+        private int port;
+
+        private Builder() {
+            ConfigurationManager config = ConfigurationManager.getInstance();
+            this.username = config.getProperty("admin.username", "admin");
+            this.password = config.getProperty("admin.password", "admin");
+        }
+
+        /**
+         * Adds policies from a CSV with the PolicyID,PolicyType,StartDate,EndDate,
+         * Premium,CustomerName,CustomerEmail,Status layout
+         * @param file CSV file path
+         * @return Builder
+         */
+        public Builder seedFromCsv(String file) {
+            try (CSVReader reader = new CSVReader(new FileReader(file, StandardCharsets.UTF_8))) {
+                reader.readNext(); // header
+                String[] line;
+
+                while ((line = reader.readNext()) != null) {
+                    if (line.length < 8) {
+                        continue;
+                    }
+                    Map<String, Object> policy = new LinkedHashMap<>();
+                    policy.put("id", line[0]);
+                    policy.put("type", line[1]);
+                    policy.put("startDate", line[2]);
+                    policy.put("endDate", line[3]);
+                    policy.put("premium", Double.parseDouble(line[4]));
+                    policy.put("customerName", line[5]);
+                    policy.put("customerEmail", line[6]);
+                    policy.put("status", line[7]);
+                    seedPolicies.add(policy);
+                }
+            } catch (IOException | CsvValidationException e) {
+                throw new RuntimeException("Failed to read API stub seed file: " + file, e);
+            }
+            return this;
+        }
+
+        /**
+         * Adds deterministic synthetic policies from PolicyDataGenerator
+         * @param count Number of policies
+         * @return Builder
+         */
+        public Builder seedGenerated(int count) {
+            seedPolicies.addAll(PolicyDataGenerator.builder().seed(seed).build().generate(count));
+            return this;
+        }
+
+        /**
+         * Adds policies as given; policies without an id get the next POL-n ID
+         * @param policies Policy data
+         * @return Builder
+         */
+        public Builder seedPolicies(List<Map<String, Object>> policies) {
+            seedPolicies.addAll(policies);
+            return this;
+        }
+
+        /**
+         * Sets the credentials accepted by /auth/login; defaults to admin.username and admin.password
+         * @param username Username
+         * @param password Password
+         * @return Builder
+         */
+        public Builder credentials(String username, String password) {
+            this.username = username;
+            this.password = password;
+            return this;
+        }
+
+        /**
+         * Sets whether policies endpoints require a token issued by /auth/login
+         * @param requireAuth Whether to check the bearer token
+         * @return Builder
+         */
+        public Builder requireAuth(boolean requireAuth) {
+            this.requireAuth = requireAuth;
+            return this;
+        }
+
+        /**
+         * Sets how long issued tokens are valid, written to their exp claim
+         * @param tokenLifetime Token lifetime
+         * @return Builder
+         */
+        public Builder tokenLifetime(Duration tokenLifetime) {
+            this.tokenLifetime = tokenLifetime;
+            return this;
+        }
+
+        /**
+         * Sets the latency added to each policies request
+         * @param latency Fixed delay
+         * @param jitter Maximum extra random delay
+         * @return Builder
+         */
+        public Builder latency(Duration latency, Duration jitter) {
+            this.latency = latency;
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Sets the fraction of policies requests answered with 503 Service Unavailable
+         * @param errorRate Error rate between 0 and 1
+         * @return Builder
+         */
+        public Builder errorRate(double errorRate) {
+            if (errorRate < 0 || errorRate > 1) {
+                throw new IllegalArgumentException("Error rate must be between 0 and 1: " + errorRate);
+            }
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * Sets the seed for injected latency and errors and for generated policies
+         * @param seed Seed
+         * @return Builder
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the number of server threads used when virtual threads are not available
+         * @param threads Thread count
+         * @return Builder
+         */
+        public Builder threads(int threads) {
+            this.threads = Math.max(1, threads);
+            return this;
+        }
+
+        /**
+         * Sets the port to listen on; 0 picks a free port
+         * @param port Port
+         * @return Builder
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Builds the stub; call start to serve requests
+         * @return Policy API stub
+         */
+        public PolicyApiStub build() {
+            return new PolicyApiStub(this);
+        }
+    }
+}
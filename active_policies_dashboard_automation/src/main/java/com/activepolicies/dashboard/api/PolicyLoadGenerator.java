@@ -0,0 +1,789 @@
+package com.activepolicies.dashboard.api;
+
+import com.activepolicies.dashboard.constants.PolicyTypes;
+import com.activepolicies.dashboard.utils.ConfigurationManager;
+import com.activepolicies.dashboard.utils.LatencyHistogram;
+import com.activepolicies.dashboard.utils.PolicyDataGenerator;
+import com.activepolicies.dashboard.utils.TaskExecutors;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the policies API, driving the same PolicyApiService
+ * the functional tests use.
+ *
+ * Requests arrive at a target rate, evenly spaced or as a Poisson process, whether or
+ * not earlier requests have completed. Latency is measured from each request's intended
+ * start time rather than from when a worker picked it up, so a slow server shows up as
+ * queueing delay instead of silently lowering the offered load (coordinated omission).
+ * Service time, from the actual send, is recorded alongside. Arrivals beyond
+ * maxOutstanding requests in flight are dropped and counted.
+ *
+ * Updates and deletes only touch policies the generator created; policies still left
+ * at the end are deleted.
+ */
+public class PolicyLoadGenerator {
+    private static final Logger logger = LogManager.getLogger(PolicyLoadGenerator.class);
+    private static final int MAX_KNOWN_POLICY_IDS = 1000;
+    private static final int MAX_POLICY_DATA = 10000;
+    private static final String[] UPDATE_STATUSES = {"Active", "Expired", "Cancelled"};
+
+    private final PolicyApiService policyApiService;
+    private final double rate;
+    private final Duration duration;
+    private final boolean poisson;
+    private final int concurrency;
+    private final int maxOutstanding;
+    private final Duration drainTimeout;
+    private final long seed;
+    private final int dateRangeDays;
+    private final Scenario[] scenarios;
+    private final double[] cumulativeWeights;
+
+    private PolicyLoadGenerator(Builder builder) {
+        this.policyApiService = builder.policyApiService;
+        this.rate = builder.rate;
+        this.duration = builder.duration;
+        this.poisson = builder.poisson;
+        this.concurrency = builder.concurrency;
+        this.maxOutstanding = builder.maxOutstanding;
+        this.drainTimeout = builder.drainTimeout;
+        this.seed = builder.seed;
+        this.dateRangeDays = builder.dateRangeDays;
+
+        List<Scenario> mixScenarios = new ArrayList<>();
+        List<Double> mixWeights = new ArrayList<>();
+        for (Map.Entry<Scenario, Double> entry : builder.weights.entrySet()) {
+            if (entry.getValue() > 0) {
+                mixScenarios.add(entry.getKey());
+                mixWeights.add(entry.getValue());
+            }
+        }
+        if (mixScenarios.isEmpty()) {
+            throw new IllegalArgumentException("Scenario mix has no scenario with a positive weight");
+        }
+
+        this.scenarios = mixScenarios.toArray(new Scenario[0]);
+        this.cumulativeWeights = new double[scenarios.length];
+        double total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += mixWeights.get(i);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Creates a generator builder with a read-heavy dashboard mix
+     * @param policyApiService Policy API service to drive
+     * @return Builder
+     */
+    public static Builder builder(PolicyApiService policyApiService) {
+        return new Builder(policyApiService);
+    }
+
+    /**
+     * Creates a generator builder with rate, duration and concurrency from api.load.* properties
+     * @param policyApiService Policy API service to drive
+     * @return Builder
+     */
+    public static Builder fromConfig(PolicyApiService policyApiService) {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        return new Builder(policyApiService)
+                .rate(Double.parseDouble(config.getProperty("api.load.rate", "20")))
+                .duration(Duration.ofSeconds(Long.parseLong(config.getProperty("api.load.duration.seconds", "60"))))
+                .concurrency(Integer.parseInt(config.getProperty("api.load.concurrency", "32")))
+                .poisson(Boolean.parseBoolean(config.getProperty("api.load.poisson", "true")));
+    }
+
+    /**
+     * Runs the load for the configured duration and waits for outstanding requests
+     * @return Load report
+     */
+    public LoadReport run() {
+        Random random = new Random(seed);
+        PolicyIds policyIds = new PolicyIds(findExistingPolicyIds());
+        List<Map<String, Object>> policyData = generatePolicyData();
+        LoadReport report = new LoadReport(rate, poisson);
+        AtomicInteger outstanding = new AtomicInteger();
+
+        logger.info("Starting policy API load: {} req/s ({} arrivals) for {} s, mix {}",
+                rate, poisson ? "Poisson" : "uniform", duration.getSeconds(), describeMix());
+        ExecutorService executor = TaskExecutors.newExecutor("policy-load", concurrency);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long intendedStart = start;
+        long arrivals = 0;
+
+        try {
+            while (intendedStart < end) {
+                long wait;
+                while ((wait = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Scenario scenario = pickScenario(random, policyIds);
+                if (outstanding.get() >= maxOutstanding) {
+                    report.getScenario(scenario).dropped.increment();
+                } else {
+                    RequestCall request = prepareRequest(scenario, random, policyIds, policyData, arrivals);
+                    long intended = intendedStart;
+                    outstanding.incrementAndGet();
+                    executor.execute(() -> {
+                        try {
+                            execute(scenario, request, intended, report);
+                        } finally {
+                            outstanding.decrementAndGet();
+                        }
+                    });
+                }
+
+                arrivals++;
+                intendedStart = poisson
+                        ? intendedStart + (long) (-Math.log(1 - random.nextDouble()) / rate * 1e9)
+                        : start + (long) (arrivals / rate * 1e9);
+            }
+        } finally {
+            executor.shutdown();
+            awaitDrain(executor);
+            report.elapsedNanos = System.nanoTime() - start;
+            deleteRemaining(policyIds);
+        }
+
+        logger.info("Policy API load finished:\n{}", report.formatSummary());
+        return report;
+    }
+
+    /**
+     * Binds the request to its inputs on the dispatching thread, so choices follow the seed
+     */
+    private RequestCall prepareRequest(Scenario scenario, Random random, PolicyIds policyIds,
+            List<Map<String, Object>> policyData, long arrival) {
+        switch (scenario) {
+            case LIST_ALL:
+                return policyApiService::getAllPolicies;
+            case GET_BY_ID:
+                String policyId = policyIds.randomKnown(random);
+                return () -> policyApiService.getPolicyById(policyId);
+            case FILTER_BY_TYPE:
+                String policyType = PolicyTypes.TYPES.get(random.nextInt(PolicyTypes.TYPES.size()));
+                return () -> policyApiService.getPoliciesByType(policyType);
+            case FILTER_BY_DATE_RANGE:
+                LocalDate from = LocalDate.of(2023, 1, 1).plusDays(random.nextInt(730));
+                String to = from.plusDays(dateRangeDays).toString();
+                return () -> policyApiService.getPoliciesByDateRange(from.toString(), to);
+            case STATISTICS:
+                return policyApiService::getPolicyStatistics;
+            case CREATE:
+                Map<String, Object> policy = policyData.get((int) (arrival % policyData.size()));
+                return () -> {
+                    Response response = policyApiService.createPolicy(policy);
+                    String createdId = response.getStatusCode() < 300 ? response.jsonPath().getString("id") : null;
+                    if (createdId != null) {
+                        policyIds.addCreated(createdId);
+                    }
+                    return response;
+                };
+            case UPDATE:
+                // Checked out while in flight, so a concurrent delete cannot pick the same policy
+                String updateId = policyIds.takeCreated(random);
+                Map<String, Object> changes = new HashMap<>();
+                changes.put("premium", Math.round(random.nextDouble() * 500000) / 100.0);
+                changes.put("status", UPDATE_STATUSES[random.nextInt(UPDATE_STATUSES.length)]);
+                return () -> {
+                    try {
+                        return policyApiService.updatePolicy(updateId, changes);
+                    } finally {
+                        policyIds.addCreated(updateId);
+                    }
+                };
+            case DELETE:
+                String deleteId = policyIds.takeCreated(random);
+                return () -> policyApiService.deletePolicy(deleteId);
+            default:
+                throw new IllegalStateException("Unknown scenario: " + scenario);
+        }
+    }
+
+    private void execute(Scenario scenario, RequestCall request, long intendedStart, LoadReport report) {
+        long sendStart = System.nanoTime();
+        Integer statusCode = null;
+        Exception failure = null;
+
+        try {
+            statusCode = request.send().getStatusCode();
+        } catch (Exception e) {
+            failure = e;
+        }
+
+        long now = System.nanoTime();
+        report.record(scenario, now - intendedStart, now - sendStart, statusCode, failure);
+    }
+
+    /**
+     * Picks the next scenario from the mix. Reads by ID fall back to listing if no
+     * policies existed at the start; updates and deletes fall back to a create while the generator
+     * has created no policies to write to.
+     */
+    private Scenario pickScenario(Random random, PolicyIds policyIds) {
+        double value = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        Scenario scenario = scenarios[scenarios.length - 1];
+
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                scenario = scenarios[i];
+                break;
+            }
+        }
+
+        if (scenario == Scenario.GET_BY_ID && policyIds.isEmpty()) {
+            return Scenario.LIST_ALL;
+        }
+        if ((scenario == Scenario.UPDATE || scenario == Scenario.DELETE) && !policyIds.hasCreated()) {
+            return Scenario.CREATE;
+        }
+        return scenario;
+    }
+
+    private List<String> findExistingPolicyIds() {
+        try {
+            Response response = policyApiService.getAllPolicies();
+            if (response.getStatusCode() == 200) {
+                List<String> policyIds = response.jsonPath().getList("id", String.class);
+                if (policyIds != null) {
+                    return new ArrayList<>(policyIds.subList(0, Math.min(policyIds.size(), MAX_KNOWN_POLICY_IDS)));
+                }
+            }
+            logger.warn("Could not list policies for reads by ID: HTTP {}", response.getStatusCode());
+        } catch (Exception e) {
+            logger.warn("Could not list policies for reads by ID: {}", e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Generates policies for creates before the clock starts, enough for the expected
+     * number of creates; they are reused round-robin if the run needs more
+     */
+    private List<Map<String, Object>> generatePolicyData() {
+        double createShare = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            if (scenarios[i] == Scenario.CREATE) {
+                createShare = (cumulativeWeights[i] - (i == 0 ? 0 : cumulativeWeights[i - 1]))
+                        / cumulativeWeights[cumulativeWeights.length - 1];
+            }
+        }
+
+        long expected = (long) Math.ceil(rate * duration.getSeconds() * Math.max(createShare, 0.05) * 1.2);
+        int count = (int) Math.max(10, Math.min(MAX_POLICY_DATA, expected));
+        return PolicyDataGenerator.builder().seed(seed).build().generate(count);
+    }
+
+    private void awaitDrain(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Requests still outstanding after {} s, abandoning them", drainTimeout.getSeconds());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    private void deleteRemaining(PolicyIds policyIds) {
+        List<String> remaining = policyIds.drainCreated();
+        if (remaining.isEmpty()) {
+            return;
+        }
+
+        long failures = 0;
+        for (PolicyApiService.ItemResult<String> result : policyApiService.deletePolicies(remaining)) {
+            if (!result.isSuccess()) {
+                failures++;
+            }
+        }
+        logger.info("Deleted {} policies left by the load run ({} failed)", remaining.size() - failures, failures);
+    }
+
+    private String describeMix() {
+        StringBuilder mix = new StringBuilder();
+        double previous = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            mix.append(i == 0 ? "" : ", ").append(scenarios[i]).append('=').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return mix.toString();
+    }
+
+    /**
+     * Scenarios in the load mix
+     */
+    public enum Scenario {
+        LIST_ALL,
+        GET_BY_ID,
+        FILTER_BY_TYPE,
+        FILTER_BY_DATE_RANGE,
+        STATISTICS,
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    /**
+     * Request bound to its inputs
+     */
+    @FunctionalInterface
+    private interface RequestCall {
+        Response send();
+    }
+
+    /**
+     * Existing policy IDs available to reads by ID, and policy IDs created by the
+     * generator available to updates and deletes
+     */
+    private static class PolicyIds {
+        private final List<String> known;
+        private final List<String> created = new ArrayList<>();
+
+        PolicyIds(List<String> existing) {
+            this.known = existing;
+        }
+
+        synchronized boolean isEmpty() {
+            return known.isEmpty();
+        }
+
+        synchronized boolean hasCreated() {
+            return !created.isEmpty();
+        }
+
+        synchronized void addCreated(String policyId) {
+            created.add(policyId);
+        }
+
+        synchronized String randomKnown(Random random) {
+            return known.get(random.nextInt(known.size()));
+        }
+
+        synchronized String takeCreated(Random random) {
+            int index = random.nextInt(created.size());
+            String policyId = created.get(index);
+            created.set(index, created.get(created.size() - 1));
+            created.remove(created.size() - 1);
+            return policyId;
+        }
+
+        synchronized List<String> drainCreated() {
+            List<String> remaining = new ArrayList<>(created);
+            created.clear();
+            return remaining;
+        }
+    }
+
+    /**
+     * Results of a load run
+     */
+    public static class LoadReport {
+        private final double targetRate;
+        private final boolean poisson;
+        private final Map<Scenario, ScenarioStats> scenarios = new EnumMap<>(Scenario.class);
+        private volatile long elapsedNanos;
+
+        LoadReport(double targetRate, boolean poisson) {
+            this.targetRate = targetRate;
+            this.poisson = poisson;
+            for (Scenario scenario : Scenario.values()) {
+                scenarios.put(scenario, new ScenarioStats());
+            }
+        }
+
+        void record(Scenario scenario, long latencyNanos, long serviceNanos, Integer statusCode, Exception failure) {
+            ScenarioStats stats = scenarios.get(scenario);
+            stats.latency.record(latencyNanos);
+            stats.serviceTime.record(serviceNanos);
+
+            if (failure != null) {
+                stats.errors.increment();
+                logger.warn("Load {} failed: {}", scenario, failure.getMessage());
+            } else {
+                stats.statusCodes.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+                if (statusCode >= 400) {
+                    stats.errors.increment();
+                }
+            }
+        }
+
+        public double getTargetRate() {
+            return targetRate;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        public ScenarioStats getScenario(Scenario scenario) {
+            return scenarios.get(scenario);
+        }
+
+        public long getTotalRequests() {
+            long total = 0;
+            for (ScenarioStats stats : scenarios.values()) {
+                total += stats.getCount();
+            }
+            return total;
+        }
+
+        public long getTotalErrors() {
+            long total = 0;
+            for (ScenarioStats stats : scenarios.values()) {
+                total += stats.getErrors();
+            }
+            return total;
+        }
+
+        public long getTotalDropped() {
+            long total = 0;
+            for (ScenarioStats stats : scenarios.values()) {
+                total += stats.getDropped();
+            }
+            return total;
+        }
+
+        /**
+         * Gets the completed request rate, including the time taken to drain outstanding requests
+         * @return Requests per second
+         */
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : getTotalRequests() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Gets latency from intended start across all scenarios
+         * @return Merged latency histogram
+         */
+        public LatencyHistogram getOverallLatency() {
+            LatencyHistogram overall = new LatencyHistogram();
+            for (ScenarioStats stats : scenarios.values()) {
+                overall.merge(stats.latency);
+            }
+            return overall;
+        }
+
+        /**
+         * Formats a plain-text summary table, one row per scenario that ran
+         * @return Summary
+         */
+        public String formatSummary() {
+            StringBuilder summary = new StringBuilder();
+            summary.append(String.format("%-20s %8s %9s %9s %9s %9s %9s %11s %7s %7s%n",
+                    "scenario", "count", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us",
+                    "svc p99 us", "errors", "dropped"));
+
+            for (Map.Entry<Scenario, ScenarioStats> entry : scenarios.entrySet()) {
+                ScenarioStats stats = entry.getValue();
+                if (stats.getCount() == 0 && stats.getDropped() == 0) {
+                    continue;
+                }
+                LatencyHistogram latency = stats.getLatency();
+                summary.append(String.format("%-20s %8d %9d %9d %9d %9d %9d %11d %7d %7d%n",
+                        entry.getKey(), stats.getCount(),
+                        latency.getPercentileMicros(50), latency.getPercentileMicros(90),
+                        latency.getPercentileMicros(99), latency.getPercentileMicros(99.9),
+                        latency.getMaxMicros(), stats.getServiceTime().getPercentileMicros(99),
+                        stats.getErrors(), stats.getDropped()));
+            }
+            summary.append(String.format("%d requests in %d ms at target %.1f req/s %s (%.1f req/s achieved), "
+                    + "latency measured from intended start%n",
+                    getTotalRequests(), getElapsedMillis(), targetRate, poisson ? "Poisson" : "uniform", getThroughput()));
+            return summary.toString();
+        }
+
+        /**
+         * Writes the report as CSV, one row per scenario that ran
+         * @param file Output file
+         * @throws IOException if the file cannot be written
+         */
+        public void writeCsv(Path file) throws IOException {
+            createParent(file);
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("scenario,count,errors,dropped,mean_us,p50_us,p90_us,p99_us,p999_us,max_us,"
+                        + "service_p50_us,service_p99_us\n");
+                for (Map.Entry<Scenario, ScenarioStats> entry : scenarios.entrySet()) {
+                    ScenarioStats stats = entry.getValue();
+                    if (stats.getCount() == 0 && stats.getDropped() == 0) {
+                        continue;
+                    }
+                    LatencyHistogram latency = stats.getLatency();
+                    LatencyHistogram serviceTime = stats.getServiceTime();
+                    writer.write(String.format("%s,%d,%d,%d,%.0f,%d,%d,%d,%d,%d,%d,%d%n",
+                            entry.getKey(), stats.getCount(), stats.getErrors(), stats.getDropped(),
+                            latency.getMeanMicros(), latency.getPercentileMicros(50), latency.getPercentileMicros(90),
+                            latency.getPercentileMicros(99), latency.getPercentileMicros(99.9), latency.getMaxMicros(),
+                            serviceTime.getPercentileMicros(50), serviceTime.getPercentileMicros(99)));
+                }
+            }
+        }
+
+        /**
+         * Writes the report as JSON, including status code counts per scenario
+         * @param file Output file
+         * @throws IOException if the file cannot be written
+         */
+        public void writeJson(Path file) throws IOException {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("targetRate", targetRate);
+            json.put("arrivals", poisson ? "poisson" : "uniform");
+            json.put("elapsedMillis", getElapsedMillis());
+            json.put("totalRequests", getTotalRequests());
+            json.put("throughput", getThroughput());
+            json.put("latency", toJson(getOverallLatency()));
+
+            Map<String, Object> scenarioJson = new LinkedHashMap<>();
+            for (Map.Entry<Scenario, ScenarioStats> entry : scenarios.entrySet()) {
+                ScenarioStats stats = entry.getValue();
+                if (stats.getCount() == 0 && stats.getDropped() == 0) {
+                    continue;
+                }
+                Map<String, Object> values = new LinkedHashMap<>();
+                values.put("count", stats.getCount());
+                values.put("errors", stats.getErrors());
+                values.put("dropped", stats.getDropped());
+                values.put("statusCodes", stats.getStatusCodes());
+                values.put("latency", toJson(stats.getLatency()));
+                values.put("serviceTime", toJson(stats.getServiceTime()));
+                scenarioJson.put(entry.getKey().name(), values);
+            }
+            json.put("scenarios", scenarioJson);
+
+            createParent(file);
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), json);
+        }
+
+        private static Map<String, Object> toJson(LatencyHistogram histogram) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("meanMicros", Math.round(histogram.getMeanMicros()));
+            values.put("p50Micros", histogram.getPercentileMicros(50));
+            values.put("p90Micros", histogram.getPercentileMicros(90));
+            values.put("p99Micros", histogram.getPercentileMicros(99));
+            values.put("p999Micros", histogram.getPercentileMicros(99.9));
+            values.put("maxMicros", histogram.getMaxMicros());
+            return values;
+        }
+
+        private static void createParent(Path file) throws IOException {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+        }
+    }
+
+    /**
+     * Latency, status codes and errors of one scenario. Errors are failed requests and
+     * 4xx/5xx responses; latency includes them.
+     */
+    public static class ScenarioStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        /**
+         * Gets latency from each request's intended start to its completion
+         * @return Latency histogram
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * Gets time from actually sending each request to its completion
+         * @return Service time histogram
+         */
+        public LatencyHistogram getServiceTime() {
+            return serviceTime;
+        }
+
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        /**
+         * Gets response counts by status code
+         * @return Counts in status code order
+         */
+        public Map<Integer, Long> getStatusCodes() {
+            Map<Integer, Long> counts = new TreeMap<>();
+            for (Map.Entry<Integer, LongAdder> entry : statusCodes.entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().sum());
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Builder for PolicyLoadGenerator
+     */
+    public static class Builder {
+        private final PolicyApiService policyApiService;
+        private final Map<Scenario, Double> weights = new EnumMap<>(Scenario.class);
+        private double rate = 20;
+        private Duration duration = Duration.ofMinutes(1);
+        private boolean poisson = true;
+        private int concurrency = 32;
+        private int maxOutstanding = 10000;
+        private Duration drainTimeout = Duration.ofSeconds(30);
+        private long seed = 42;
+        private int dateRangeDays = 30;
+
+        private Builder(PolicyApiService policyApiService) {
+            this.policyApiService = policyApiService;
+            weights.put(Scenario.LIST_ALL, 0.10);
+            weights.put(Scenario.GET_BY_ID, 0.30);
+            weights.put(Scenario.FILTER_BY_TYPE, 0.20);
+            weights.put(Scenario.FILTER_BY_DATE_RANGE, 0.15);
+            weights.put(Scenario.STATISTICS, 0.10);
+            weights.put(Scenario.CREATE, 0.07);
+            weights.put(Scenario.UPDATE, 0.05);
+            weights.put(Scenario.DELETE, 0.03);
+        }
+
+        /**
+         * Sets the target arrival rate
+         * @param requestsPerSecond Requests started per second
+         * @return Builder
+         */
+        public Builder rate(double requestsPerSecond) {
+            if (requestsPerSecond <= 0) {
+                throw new IllegalArgumentException("Rate must be positive: " + requestsPerSecond);
+            }
+            this.rate = requestsPerSecond;
+            return this;
+        }
+
+        /**
+         * Sets how long requests keep arriving
+         * @param duration Load duration
+         * @return Builder
+         */
+        public Builder duration(Duration duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        /**
+         * Chooses Poisson arrivals (exponential gaps) instead of evenly spaced ones
+         * @param poisson Whether arrivals are a Poisson process
+         * @return Builder
+         */
+        public Builder poisson(boolean poisson) {
+            this.poisson = poisson;
+            return this;
+        }
+
+        /**
+         * Sets the number of worker threads used when virtual threads are not available
+         * @param concurrency Worker count
+         * @return Builder
+         */
+        public Builder concurrency(int concurrency) {
+            this.concurrency = Math.max(1, concurrency);
+            return this;
+        }
+
+        /**
+         * Sets how many requests may be in flight or queued before arrivals are dropped
+         * @param maxOutstanding Outstanding request limit
+         * @return Builder
+         */
+        public Builder maxOutstanding(int maxOutstanding) {
+            this.maxOutstanding = Math.max(1, maxOutstanding);
+            return this;
+        }
+
+        /**
+         * Sets how long to wait for outstanding requests after the last arrival
+         * @param drainTimeout Drain timeout
+         * @return Builder
+         */
+        public Builder drainTimeout(Duration drainTimeout) {
+            this.drainTimeout = drainTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the relative weight of a scenario in the mix; 0 removes it
+         * @param scenario Scenario
+         * @param weight Relative weight
+         * @return Builder
+         */
+        public Builder weight(Scenario scenario, double weight) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight must not be negative: " + weight);
+            }
+            weights.put(scenario, weight);
+            return this;
+        }
+
+        /**
+         * Sets the random seed for arrivals, scenario choice and generated policies
+         * @param seed Seed
+         * @return Builder
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the width of the start date window queried by date range filters
+         * @param days Window in days
+         * @return Builder
+         */
+        public Builder dateRangeDays(int days) {
+            this.dateRangeDays = days;
+            return this;
+        }
+
+        /**
+         * Builds the generator
+         * @return Load generator
+         */
+        public PolicyLoadGenerator build() {
+            return new PolicyLoadGenerator(this);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.activepolicies.dashboard.api;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Typed policy read from a policies API response, as handed out by the streaming
+ * PolicyApiService.forEachPolicy methods. Fields missing from the response are null,
+ * or NaN for the premium; fields the record does not know are skipped.
+ */
+public class PolicyRecord {
+    private String id;
+    private String type;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private double premium = Double.NaN;
+    private String customerId;
+    private String customerName;
+    private String customerEmail;
+    private String status;
+
+    private PolicyRecord() {
+    }
+
+    /**
+     * Reads the policy object the parser is positioned on, leaving the parser on its END_OBJECT
+     * @param parser JSON parser positioned on START_OBJECT
+     * @return Policy record
+     * @throws IOException if the object is malformed
+     */
+    static PolicyRecord read(JsonParser parser) throws IOException {
+        PolicyRecord policy = new PolicyRecord();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (field) {
+                case "id":
+                    policy.id = parser.getValueAsString();
+                    break;
+                case "type":
+                    policy.type = parser.getValueAsString();
+                    break;
+                case "startDate":
+                    policy.startDate = readDate(parser);
+                    break;
+                case "endDate":
+                    policy.endDate = readDate(parser);
+                    break;
+                case "premium":
+                    policy.premium = parser.getValueAsDouble(Double.NaN);
+                    break;
+                case "customerId":
+                    policy.customerId = parser.getValueAsString();
+                    break;
+                case "customerName":
+                    policy.customerName = parser.getValueAsString();
+                    break;
+                case "customerEmail":
+                    policy.customerEmail = parser.getValueAsString();
+                    break;
+                case "status":
+                    policy.status = parser.getValueAsString();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Expected end of policy object but found " + parser.currentToken());
+        }
+        return policy;
+    }
+
+    /**
+     * Reads an ISO date, ignoring any time part
+     */
+    private static LocalDate readDate(JsonParser parser) throws IOException {
+        String text = parser.getValueAsString();
+        try {
+            return LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text);
+        } catch (DateTimeParseException e) {
+            throw new JsonParseException(parser, "Invalid policy date: " + text, e);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public double getPremium() {
+        return premium;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s, %s to %s, premium %.2f, %s)", id, type, startDate, endDate, premium, status);
+    }
+}
@@ -0,0 +1,263 @@
+package com.activepolicies.dashboard.api;
+
+import com.activepolicies.dashboard.utils.CacheStats;
+import com.activepolicies.dashboard.utils.ConfigurationManager;
+import com.activepolicies.dashboard.utils.TaskExecutors;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide cache of authentication tokens by API base URI and user, shared by
+ * every ApiClient and by the UI layer for session injection.
+ *
+ * A token's expiry is read from its JWT exp claim, or set api.token.default.ttl.seconds
+ * after login for opaque tokens. Tokens are refreshed api.token.refresh.margin.seconds
+ * (at most half their lifetime) before they expire: in the background if the token was
+ * used since it was issued, otherwise by the next caller. Concurrent refreshes of the
+ * same user are coalesced into a single login request. A single scheduler thread
+ * only times background refreshes; their logins run on a separate elastic executor,
+ * so one slow login does not hold up the refreshes of other users.
+ */
+public final class TokenCache {
+    private static final Logger logger = LogManager.getLogger(TokenCache.class);
+    private static final TokenCache instance = new TokenCache();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, TokenEntry> entries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService refreshExecutor;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private TokenCache() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                TaskExecutors.daemonThreadFactory("token-refresh"));
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+        this.refreshExecutor = TaskExecutors.newElasticExecutor("token-refresh-login");
+    }
+
+    /**
+     * Gets the shared token cache
+     * @return Token cache
+     */
+    public static TokenCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Performs a login and returns the issued token
+     */
+    @FunctionalInterface
+    public interface TokenLoader {
+        String login();
+    }
+
+    /**
+     * Gets a valid token for a user, logging in if there is none or it is due for refresh.
+     * Callers arriving while a login for the same user is in flight wait for its result.
+     * @param baseUri API base URI the token was issued by
+     * @param username Username
+     * @param loader Performs the login; kept for background refreshes
+     * @return Token
+     */
+    public String getToken(String baseUri, String username, TokenLoader loader) {
+        TokenEntry entry = entries.computeIfAbsent(baseUri + "|" + username, key -> new TokenEntry(username));
+        entry.loader = loader;
+
+        CachedToken token = entry.token;
+        if (token != null && System.currentTimeMillis() < token.refreshAt) {
+            entry.used = true;
+            hits.increment();
+            return token.value;
+        }
+
+        misses.increment();
+        try {
+            String value = entry.refresh().join().value;
+            entry.used = true;
+            return value;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Drops a user's token, e.g. after the API rejected it, so the next caller logs in again
+     * @param baseUri API base URI
+     * @param username Username
+     */
+    public void invalidate(String baseUri, String username) {
+        TokenEntry entry = entries.remove(baseUri + "|" + username);
+        if (entry != null) {
+            entry.cancelRefresh();
+            evictions.increment();
+            logger.info("Invalidated token of {}", username);
+        }
+    }
+
+    /**
+     * Drops every token
+     */
+    public void clear() {
+        for (String key : entries.keySet()) {
+            TokenEntry entry = entries.remove(key);
+            if (entry != null) {
+                entry.cancelRefresh();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Gets hit/miss counters; misses are lookups that waited for a login
+     * @return Cache statistics
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Reads the expiry of a JWT from its exp claim
+     * @param token Token
+     * @return Expiry in epoch milliseconds, or -1 if the token is not a JWT with an exp claim
+     */
+    public static long parseExpiry(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return -1;
+        }
+
+        try {
+            JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            JsonNode exp = claims.get("exp");
+            return exp != null && exp.isNumber() ? TimeUnit.SECONDS.toMillis(exp.asLong()) : -1;
+        } catch (Exception e) {
+            logger.debug("Token is not a readable JWT: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    private CachedToken toCachedToken(String value) {
+        ConfigurationManager config = ConfigurationManager.getInstance();
+        long now = System.currentTimeMillis();
+        long expiresAt = parseExpiry(value);
+        if (expiresAt < 0) {
+            expiresAt = now + TimeUnit.SECONDS.toMillis(Long.parseLong(config.getProperty("api.token.default.ttl.seconds", "300")));
+        }
+
+        long margin = TimeUnit.SECONDS.toMillis(Long.parseLong(config.getProperty("api.token.refresh.margin.seconds", "60")));
+        long refreshAt = expiresAt - Math.min(margin, Math.max(0, expiresAt - now) / 2);
+        return new CachedToken(value, expiresAt, refreshAt);
+    }
+
+    /**
+     * Token state of one user
+     */
+    private class TokenEntry {
+        private final String username;
+        private volatile TokenLoader loader;
+        private volatile CachedToken token;
+        // Set when the current token is handed out, so tokens unused since their refresh are left to expire
+        private volatile boolean used;
+        private CompletableFuture<CachedToken> inFlight;
+        private ScheduledFuture<?> refreshTask;
+
+        TokenEntry(String username) {
+            this.username = username;
+        }
+
+        /**
+         * Logs in on the calling thread, or joins the login already in flight
+         */
+        CompletableFuture<CachedToken> refresh() {
+            CompletableFuture<CachedToken> future;
+            synchronized (this) {
+                if (inFlight != null) {
+                    return inFlight;
+                }
+                future = new CompletableFuture<>();
+                inFlight = future;
+            }
+
+            try {
+                CachedToken newToken = toCachedToken(loader.login());
+                synchronized (this) {
+                    token = newToken;
+                    used = false;
+                    scheduleRefresh(newToken);
+                }
+                logger.info("Token of {} refreshed, expires in {} s", username,
+                        TimeUnit.MILLISECONDS.toSeconds(newToken.expiresAt - System.currentTimeMillis()));
+                future.complete(newToken);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    inFlight = null;
+                }
+            }
+            return future;
+        }
+
+        private void scheduleRefresh(CachedToken newToken) {
+            cancelRefresh();
+            long delay = Math.max(0, newToken.refreshAt - System.currentTimeMillis());
+            refreshTask = scheduler.schedule(this::refreshInBackground, delay, TimeUnit.MILLISECONDS);
+        }
+
+        synchronized void cancelRefresh() {
+            if (refreshTask != null) {
+                refreshTask.cancel(false);
+                refreshTask = null;
+            }
+        }
+
+        private void refreshInBackground() {
+            if (!used) {
+                logger.debug("Token of {} unused since issued, leaving refresh to the next caller", username);
+                return;
+            }
+            // The login blocks, so it runs off the scheduler thread that times every user's refresh
+            refreshExecutor.execute(() -> refresh().whenComplete((newToken, e) -> {
+                if (e != null) {
+                    logger.warn("Background refresh of token of {} failed: {}", username, e.getMessage());
+                }
+            }));
+        }
+    }
+
+    /**
+     * Token with its expiry and the time it is due for refresh, in epoch milliseconds
+     */
+    private static class CachedToken {
+        private final String value;
+        private final long expiresAt;
+        private final long refreshAt;
+
+        CachedToken(String value, long expiresAt, long refreshAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.activepolicies.dashboard.constants;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Constants for policy types used in the application
  */
@@ -12,6 +16,10 @@ public class PolicyTypes {
     public static final String TRAVEL = "Travel";
     public static final String PET = "Pet";
     
+    // All concrete policy types, in a stable order
+    public static final List<String> TYPES = Collections.unmodifiableList(
+            Arrays.asList(AUTO, HOME, LIFE, HEALTH, COMMERCIAL, TRAVEL, PET));
+    
     // Default dropdown option
     public static final String ALL = "All Policies";
 }
@@ -0,0 +1,64 @@
+package com.activepolicies.dashboard.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a JDBC batch insert: generated keys in insertion order and throughput
+ */
+public class BatchInsertResult {
+    private final List<Object> generatedKeys;
+    private final int rowCount;
+    private final long elapsedNanos;
+
+    /**
+     * Constructor
+     * @param generatedKeys Generated keys in insertion order
+     * @param rowCount Number of rows inserted
+     * @param elapsedNanos Time taken in nanoseconds
+     */
+    public BatchInsertResult(List<Object> generatedKeys, int rowCount, long elapsedNanos) {
+        this.generatedKeys = Collections.unmodifiableList(generatedKeys);
+        this.rowCount = rowCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public List<Object> getGeneratedKeys() {
+        return generatedKeys;
+    }
+
+    /**
+     * Gets generated keys as strings, matching the IDs returned by createPolicy
+     * @return Generated IDs in insertion order
+     */
+    public List<String> getGeneratedIds() {
+        List<String> ids = new ArrayList<>(generatedKeys.size());
+        for (Object key : generatedKeys) {
+            ids.add(key.toString());
+        }
+        return ids;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * Gets achieved insert throughput
+     * @return Rows inserted per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows in %d ms (%.0f rows/s)", rowCount, getElapsedMillis(), getRowsPerSecond());
+    }
+}
@@ -0,0 +1,178 @@
+package com.activepolicies.dashboard.db;
+
+import com.activepolicies.dashboard.utils.ConfigurationManager;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe JDBC connection pool shared by all DatabaseManager instances
+ * pointing at the same database. Backed by HikariCP, which validates
+ * connections on borrow, evicts idle connections above the minimum size
+ * and reports connections held longer than the leak detection threshold.
+ */
+public class ConnectionPool {
+    private static final Logger logger = LogManager.getLogger(ConnectionPool.class);
+    private static final Map<String, ConnectionPool> pools = new ConcurrentHashMap<>();
+
+    private final HikariDataSource dataSource;
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Constructor
+     * @param config Configuration manager
+     */
+    private ConnectionPool(ConfigurationManager config) {
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName("activepolicies-db-pool");
+        hikariConfig.setJdbcUrl(config.getProperty("db.url"));
+        hikariConfig.setUsername(config.getProperty("db.username"));
+        hikariConfig.setPassword(config.getProperty("db.password"));
+        hikariConfig.setMinimumIdle(Integer.parseInt(config.getProperty("db.pool.min.idle", "2")));
+        hikariConfig.setMaximumPoolSize(Integer.parseInt(config.getProperty("db.pool.max.size", "10")));
+        hikariConfig.setConnectionTimeout(Long.parseLong(config.getProperty("db.pool.connection.timeout.ms", "30000")));
+        hikariConfig.setValidationTimeout(Long.parseLong(config.getProperty("db.pool.validation.timeout.ms", "5000")));
+        hikariConfig.setIdleTimeout(Long.parseLong(config.getProperty("db.pool.idle.timeout.ms", "600000")));
+        hikariConfig.setLeakDetectionThreshold(Long.parseLong(config.getProperty("db.pool.leak.detection.threshold.ms", "0")));
+
+        if (DatabaseDialect.fromUrl(hikariConfig.getJdbcUrl()) == DatabaseDialect.MYSQL) {
+            hikariConfig.addDataSourceProperty("rewriteBatchedStatements", config.getProperty("db.batch.rewrite", "false"));
+            hikariConfig.addDataSourceProperty("useServerPrepStmts", config.getProperty("db.statement.server.prepare", "false"));
+        }
+
+        logger.info("Creating connection pool for: {} (min idle: {}, max size: {})",
+                hikariConfig.getJdbcUrl(), hikariConfig.getMinimumIdle(), hikariConfig.getMaximumPoolSize());
+
+        dataSource = new HikariDataSource(hikariConfig);
+    }
+
+    /**
+     * Gets the shared pool for the configured database, creating it on first use
+     * @param config Configuration manager
+     * @return Connection pool
+     */
+    public static ConnectionPool getInstance(ConfigurationManager config) {
+        String key = config.getProperty("db.url") + "|" + config.getProperty("db.username");
+        return pools.computeIfAbsent(key, k -> new ConnectionPool(config));
+    }
+
+    /**
+     * Closes all pools. Connections still borrowed are closed as they are returned.
+     */
+    public static void closeAll() {
+        for (ConnectionPool pool : pools.values()) {
+            pool.close();
+        }
+        pools.clear();
+    }
+
+    /**
+     * Borrows a connection from the pool. Closing the connection returns it to the pool.
+     * @return Pooled connection
+     * @throws SQLException if no connection becomes available within the connection timeout
+     */
+    public Connection borrowConnection() throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            return dataSource.getConnection();
+        } finally {
+            long waited = System.nanoTime() - start;
+            borrowCount.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+    }
+
+    /**
+     * Gets a snapshot of the pool metrics
+     * @return Pool metrics
+     */
+    public PoolMetrics getMetrics() {
+        HikariPoolMXBean poolBean = dataSource.getHikariPoolMXBean();
+        long borrows = borrowCount.sum();
+
+        return new PoolMetrics(
+                poolBean == null ? 0 : poolBean.getActiveConnections(),
+                poolBean == null ? 0 : poolBean.getIdleConnections(),
+                poolBean == null ? 0 : poolBean.getThreadsAwaitingConnection(),
+                borrows,
+                borrows == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.sum() / borrows),
+                TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()));
+    }
+
+    /**
+     * Closes the pool
+     */
+    public void close() {
+        if (!dataSource.isClosed()) {
+            logger.info("Closing connection pool. Final metrics: {}", getMetrics());
+            dataSource.close();
+        }
+    }
+
+    /**
+     * Point-in-time connection pool metrics
+     */
+    public static class PoolMetrics {
+        private final int activeConnections;
+        private final int idleConnections;
+        private final int threadsAwaitingConnection;
+        private final long borrowCount;
+        private final long averageWaitMicros;
+        private final long maxWaitMicros;
+
+        public PoolMetrics(int activeConnections, int idleConnections, int threadsAwaitingConnection,
+                           long borrowCount, long averageWaitMicros, long maxWaitMicros) {
+            this.activeConnections = activeConnections;
+            this.idleConnections = idleConnections;
+            this.threadsAwaitingConnection = threadsAwaitingConnection;
+            this.borrowCount = borrowCount;
+            this.averageWaitMicros = averageWaitMicros;
+            this.maxWaitMicros = maxWaitMicros;
+        }
+
+        public int getActiveConnections() {
+            return activeConnections;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public int getThreadsAwaitingConnection() {
+            return threadsAwaitingConnection;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        public long getAverageWaitMicros() {
+            return averageWaitMicros;
+        }
+
+        public long getMaxWaitMicros() {
+            return maxWaitMicros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d, idle=%d, waiting=%d, borrows=%d, avgWait=%dus, maxWait=%dus",
+                    activeConnections, idleConnections, threadsAwaitingConnection,
+                    borrowCount, averageWaitMicros, maxWaitMicros);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.activepolicies.dashboard.db;
+
+import java.util.List;
+
+/**
+ * Database flavours that need vendor-specific JDBC handling
+ */
+public enum DatabaseDialect {
+    MYSQL,
+    H2,
+    GENERIC;
+
+    /**
+     * Builds a SQL expression for a 64-bit row hash: the first 8 bytes of the SHA-256
+     * of the column values, each written as length:value or N for NULL and joined with |.
+     * MySQL returns it unsigned and H2 signed; TableFingerprint.toHash reads either, and
+     * TableFingerprint.rowHash computes the same value client-side.
+     * @param columns Column names, already validated as identifiers
+     * @return Hash expression, or null if the database has no suitable hash function
+     */
+    public String rowHashExpression(List<String> columns) {
+        if (this == GENERIC) {
+            return null;
+        }
+
+        String castType = this == MYSQL ? "CHAR" : "VARCHAR";
+        StringBuilder values = new StringBuilder();
+        for (String column : columns) {
+            String text = "CAST(" + column + " AS " + castType + ")";
+            values.append(values.length() == 0 ? "" : ", ")
+                    .append("CASE WHEN ").append(column).append(" IS NULL THEN 'N' ELSE CONCAT(CHAR_LENGTH(")
+                    .append(text).append("), ':', ").append(text).append(") END");
+        }
+
+        String row = "CONCAT_WS('|', " + values + ")";
+        if (this == MYSQL) {
+            return "CAST(CONV(SUBSTRING(SHA2(" + row + ", 256), 1, 16), 16, 10) AS UNSIGNED)";
+        }
+        return "CAST(SUBSTRING(HASH('SHA-256', " + row + "), 1, 8) AS BIGINT)";
+    }
+
+    /**
+     * Resolves the dialect from a JDBC URL
+     * @param jdbcUrl JDBC URL
+     * @return Database dialect
+     */
+    public static DatabaseDialect fromUrl(String jdbcUrl) {
+        if (jdbcUrl == null) {
+            return GENERIC;
+        }
+
+        String url = jdbcUrl.toLowerCase();
+
+        if (url.startsWith("jdbc:mysql:") || url.startsWith("jdbc:mariadb:")) {
+            return MYSQL;
+        }
+        if (url.startsWith("jdbc:h2:")) {
+            return H2;
+        }
+        return GENERIC;
+    }
+}
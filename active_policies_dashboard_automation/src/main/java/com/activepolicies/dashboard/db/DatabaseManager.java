@@ -1,6 +1,9 @@
 package com.activepolicies.dashboard.db;
 
+import com.activepolicies.dashboard.utils.CacheStats;
 import com.activepolicies.dashboard.utils.ConfigurationManager;
+import com.activepolicies.dashboard.utils.TaskExecutors;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -9,18 +12,54 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Manages database connections and operations
+ * Manages database connections and operations.
+ * In pooled mode (db.pool.enabled=true) every statement borrows a connection
+ * from the shared ConnectionPool and returns it afterwards, so one instance
+ * can be used from parallel threads.
+ * Every statement is timed into QueryMetrics; statements slower than
+ * db.slow.query.threshold.ms are logged with their parameters and EXPLAIN plan,
+ * and statement text is logged at INFO for one in db.query.log.sample executions.
+ * With db.plan.inspect=true the plan of each distinct SELECT, UPDATE and DELETE is
+ * captured by QueryPlanInspector before its first execution; INSERTs, single and
+ * batched, are not inspected.
  */
 public class DatabaseManager {
     private static final Logger logger = LogManager.getLogger(DatabaseManager.class);
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
     private final ConfigurationManager config;
+    private final boolean pooled;
+    private final DatabaseDialect dialect;
+    private final int streamFetchSize;
+    private final int batchSize;
+    private final int statementCacheSize;
+    private final int parallelism;
+    private final long slowQueryThresholdNanos;
+    private final int logSampleRate;
+    private final QueryPlanInspector planInspector;
+    private final boolean planInspectionEnabled;
+    private final boolean planFailOnViolation;
+    private final ThreadLocal<IsolatedTransaction> isolatedTransaction = new ThreadLocal<>();
     private Connection connection;
     
     /**
@@ -28,21 +67,76 @@ public class DatabaseManager {
      */
     public DatabaseManager() {
         config = ConfigurationManager.getInstance();
+        pooled = Boolean.parseBoolean(config.getProperty("db.pool.enabled", "false"));
+        dialect = DatabaseDialect.fromUrl(config.getProperty("db.url", null));
+        streamFetchSize = Integer.parseInt(config.getProperty("db.stream.fetch.size", "1000"));
+        batchSize = Integer.parseInt(config.getProperty("db.batch.size", "1000"));
+        statementCacheSize = Integer.parseInt(config.getProperty("db.statement.cache.size", "0"));
+        parallelism = Integer.parseInt(config.getProperty("db.parallel.max", "4"));
+        slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.parseLong(config.getProperty("db.slow.query.threshold.ms", "1000")));
+        logSampleRate = Integer.parseInt(config.getProperty("db.query.log.sample", "1"));
+        planInspector = new QueryPlanInspector(dialect,
+                Boolean.parseBoolean(config.getProperty("db.plan.analyze", "false")),
+                Long.parseLong(config.getProperty("db.plan.max.rows", "0")));
+        planInspectionEnabled = Boolean.parseBoolean(config.getProperty("db.plan.inspect", "false"));
+        planFailOnViolation = Boolean.parseBoolean(config.getProperty("db.plan.fail.on.violation", "false"));
     }
     
     /**
-     * Opens database connection
+     * Gets the dialect of the configured database
+     * @return Database dialect
+     */
+    public DatabaseDialect getDialect() {
+        return dialect;
+    }
+    
+    /**
+     * Checks if statements borrow connections from the shared pool
+     * @return true if db.pool.enabled is set
+     */
+    public boolean isPooled() {
+        return pooled;
+    }
+    
+    /**
+     * Opens database connection. In pooled mode this only makes sure the shared pool exists.
+     * With db.embedded.enabled the embedded database is created and seeded on first use.
      * @throws SQLException if connection fails
      */
     public void openConnection() throws SQLException {
+        if (pooled) {
+            ConnectionPool.getInstance(config);
+        } else {
+            openSingleConnection();
+        }
+        
+        if (EmbeddedDatabase.isEnabled(config)) {
+            new EmbeddedDatabase(this).start();
+        }
+    }
+    
+    /**
+     * Opens the connection used when pooling is disabled
+     * @throws SQLException if connection fails
+     */
+    private void openSingleConnection() throws SQLException {
         String dbUrl = config.getProperty("db.url");
         String dbUser = config.getProperty("db.username");
         String dbPassword = config.getProperty("db.password");
         
         logger.info("Opening database connection to: {}", dbUrl);
         
+        Properties connectionProperties = new Properties();
+        connectionProperties.setProperty("user", dbUser);
+        connectionProperties.setProperty("password", dbPassword);
+        if (dialect == DatabaseDialect.MYSQL) {
+            connectionProperties.setProperty("rewriteBatchedStatements", config.getProperty("db.batch.rewrite", "false"));
+            connectionProperties.setProperty("useServerPrepStmts", config.getProperty("db.statement.server.prepare", "false"));
+        }
+        
         try {
-            connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
+            connection = DriverManager.getConnection(dbUrl, connectionProperties);
         } catch (SQLException e) {
             logger.error("Failed to open database connection", e);
             throw e;
@@ -50,9 +144,15 @@ public class DatabaseManager {
     }
     
     /**
-     * Closes database connection
+     * Closes database connection. In pooled mode connections are already returned
+     * after each statement, so the shared pool is left open.
      */
     public void closeConnection() {
+        if (pooled) {
+            logger.debug("Connection pool metrics: {}", getPoolMetrics());
+            return;
+        }
+        
         if (connection != null) {
             try {
                 connection.close();
@@ -63,6 +163,209 @@ public class DatabaseManager {
         }
     }
     
+    /**
+     * Gets connection pool metrics
+     * @return Pool metrics, or null when pooling is disabled
+     */
+    public ConnectionPool.PoolMetrics getPoolMetrics() {
+        return pooled ? ConnectionPool.getInstance(config).getMetrics() : null;
+    }
+    
+    /**
+     * Closes all shared connection pools
+     */
+    public static void shutdownPools() {
+        ConnectionPool.closeAll();
+    }
+    
+    /**
+     * Starts a transaction that all statements issued by the current thread join
+     * until rollbackIsolatedTransaction is called. If the connection is already in
+     * a transaction, a savepoint is used instead. In pooled mode each thread gets its
+     * own connection, so parallel tests cannot see each other's changes.
+     * @throws SQLException if the transaction cannot be started
+     */
+    public void beginIsolatedTransaction() throws SQLException {
+        if (isolatedTransaction.get() != null) {
+            throw new IllegalStateException("An isolated transaction is already active on this thread");
+        }
+        
+        Connection conn = borrowConnection();
+        
+        try {
+            boolean autoCommit = conn.getAutoCommit();
+            Savepoint savepoint = null;
+            
+            if (autoCommit) {
+                conn.setAutoCommit(false);
+            } else {
+                savepoint = conn.setSavepoint();
+            }
+            
+            isolatedTransaction.set(new IsolatedTransaction(conn, autoCommit, savepoint));
+            logger.debug("Began isolated transaction{}", savepoint == null ? "" : " at savepoint");
+        } catch (SQLException e) {
+            logger.error("Failed to begin isolated transaction", e);
+            releaseConnection(conn);
+            throw e;
+        }
+    }
+    
+    /**
+     * Rolls back the current thread's isolated transaction, discarding every change
+     * made since beginIsolatedTransaction. Does nothing if no transaction is active.
+     */
+    public void rollbackIsolatedTransaction() {
+        IsolatedTransaction transaction = isolatedTransaction.get();
+        if (transaction == null) {
+            return;
+        }
+        
+        isolatedTransaction.remove();
+        Connection conn = transaction.connection;
+        
+        try {
+            if (transaction.savepoint != null) {
+                conn.rollback(transaction.savepoint);
+            } else {
+                conn.rollback();
+                conn.setAutoCommit(transaction.autoCommit);
+            }
+            logger.debug("Rolled back isolated transaction");
+        } catch (SQLException e) {
+            logger.error("Failed to roll back isolated transaction", e);
+        } finally {
+            releaseConnection(conn);
+        }
+    }
+    
+    /**
+     * Checks if the current thread has an isolated transaction open
+     * @return true if statements on this thread join an isolated transaction
+     */
+    public boolean isInIsolatedTransaction() {
+        return isolatedTransaction.get() != null;
+    }
+    
+    /**
+     * Checks if the current thread's isolated transaction has executed a write
+     * @return true if statements on this thread may see changes other threads cannot
+     */
+    public boolean hasUncommittedWrites() {
+        IsolatedTransaction transaction = isolatedTransaction.get();
+        return transaction != null && transaction.written;
+    }
+    
+    /**
+     * Marks the current thread's isolated transaction, if any, as written
+     */
+    private void markIsolatedWrite() {
+        IsolatedTransaction transaction = isolatedTransaction.get();
+        if (transaction != null) {
+            transaction.written = true;
+        }
+    }
+    
+    /**
+     * Gets a connection for a single operation
+     * @return The isolated transaction's connection if one is active on this thread,
+     *         otherwise a pooled connection in pooled mode or the open connection
+     * @throws SQLException if no connection is available
+     */
+    private Connection borrowConnection() throws SQLException {
+        IsolatedTransaction transaction = isolatedTransaction.get();
+        if (transaction != null) {
+            return transaction.connection;
+        }
+        
+        if (pooled) {
+            return ConnectionPool.getInstance(config).borrowConnection();
+        }
+        
+        if (connection == null) {
+            throw new SQLException("Database connection is not open");
+        }
+        return connection;
+    }
+    
+    /**
+     * Returns a connection obtained from borrowConnection
+     * @param conn Connection
+     */
+    private void releaseConnection(Connection conn) {
+        IsolatedTransaction transaction = isolatedTransaction.get();
+        if (transaction != null && transaction.connection == conn) {
+            return;
+        }
+        
+        if (pooled && conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                logger.error("Failed to return connection to pool", e);
+            }
+        }
+    }
+    
+    /**
+     * Prepares a statement, reusing a cached one for the same SQL text on this
+     * connection when db.statement.cache.size is greater than zero
+     * @param conn Connection
+     * @param query SQL query
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS
+     * @return Prepared statement, to be handed back through releaseStatement
+     * @throws SQLException if statement cannot be prepared
+     */
+    private PreparedStatement prepareStatement(Connection conn, String query, int autoGeneratedKeys) throws SQLException {
+        if (statementCacheSize > 0) {
+            return StatementCache.forConnection(conn, statementCacheSize).prepare(query, autoGeneratedKeys);
+        }
+        return conn.prepareStatement(query, autoGeneratedKeys);
+    }
+    
+    /**
+     * Releases a statement obtained from prepareStatement. Cached statements
+     * stay open with their parameters cleared; others are closed.
+     * @param stmt Prepared statement, may be null
+     */
+    private void releaseStatement(PreparedStatement stmt) {
+        if (stmt == null) {
+            return;
+        }
+        
+        try {
+            if (statementCacheSize > 0) {
+                stmt.clearParameters();
+            } else {
+                stmt.close();
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to release statement", e);
+        }
+    }
+    
+    /**
+     * Gets prepared statement cache statistics across all connections
+     * @return Cache statistics
+     */
+    public CacheStats getStatementCacheStats() {
+        return StatementCache.getStats();
+    }
+    
+    /**
+     * Binds positional parameters to a statement
+     * @param stmt Prepared statement
+     * @param params Query parameters, may be null
+     * @throws SQLException if a parameter cannot be set
+     */
+    private void bindParameters(PreparedStatement stmt, List<Object> params) throws SQLException {
+        if (params != null) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+        }
+    }
+    
     /**
      * Executes SELECT query and returns results as list of maps
      * @param query SQL query
@@ -81,39 +384,384 @@ public class DatabaseManager {
      * @throws SQLException if query fails
      */
     public List<Map<String, Object>> executeQuery(String query, List<Object> params) throws SQLException {
-        logger.info("Executing query: {}", query);
+        // Rows are converted as they are read, so the compact rows are never held alongside the maps
+        List<Map<String, Object>> maps = new ArrayList<>();
+        runQuery(query, params, (schema, values) -> maps.add(new ResultRow(schema, values).toMap()));
+        return maps;
+    }
+    
+    /**
+     * Executes SELECT query and returns a compact result. Column metadata is
+     * resolved once into a shared schema and each row is stored as a value array.
+     * @param query SQL query
+     * @param params Query parameters
+     * @return Compact query result
+     * @throws SQLException if query fails
+     */
+    public QueryResult executeCompactQuery(String query, List<Object> params) throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        ResultSchema schema = runQuery(query, params, (rowSchema, values) -> rows.add(values));
+        return new QueryResult(schema, rows);
+    }
+    
+    /**
+     * Executes SELECT query with plan inspection, metrics and slow-query logging,
+     * handing each row to the collector as it is read
+     * @param query SQL query
+     * @param params Query parameters
+     * @param collector Receives every row
+     * @return Result schema
+     * @throws SQLException if query fails
+     */
+    private ResultSchema runQuery(String query, List<Object> params, RowCollector collector) throws SQLException {
+        QueryMetrics.StatementMetrics metrics = QueryMetrics.forStatement(query);
+        Level logLevel = sampledLogLevel(metrics);
+        logger.log(logLevel, "Executing query: {}", query);
+        
+        ResultSchema schema;
+        int rowCount = 0;
+        long bytes = 0;
+        boolean failed = true;
+        
+        long start = System.nanoTime();
+        Connection conn = borrowConnection();
+        long waitNanos = System.nanoTime() - start;
+        PreparedStatement stmt = null;
+        
+        try {
+            inspectPlan(conn, query, params);
+            stmt = prepareStatement(conn, query, Statement.NO_GENERATED_KEYS);
+            bindParameters(stmt, params);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                schema = ResultSchema.from(rs.getMetaData());
+                int columnCount = schema.getColumnCount();
+                
+                while (rs.next()) {
+                    Object[] values = readValues(rs, columnCount);
+                    bytes += estimateBytes(values);
+                    collector.add(schema, values);
+                    rowCount++;
+                }
+            }
+            failed = false;
+        } catch (SQLException e) {
+            logger.error("Failed to execute query", e);
+            throw e;
+        } finally {
+            releaseStatement(stmt);
+            releaseConnection(conn);
+            recordExecution(metrics, query, params, start, rowCount, bytes, waitNanos, failed);
+        }
+        
+        logger.log(logLevel, "Query returned {} rows", rowCount);
+        return schema;
+    }
+    
+    /**
+     * Executes SELECT query and hands each row to the callback as it is read,
+     * without materializing the result set. Memory use is constant in the number of rows.
+     * @param query SQL query
+     * @param params Query parameters
+     * @param callback Row callback
+     * @return Number of rows processed
+     * @throws SQLException if query or callback fails
+     */
+    public long streamQuery(String query, List<Object> params, RowCallback callback) throws SQLException {
+        ResultSchema[] schema = new ResultSchema[1];
         
-        List<Map<String, Object>> results = new ArrayList<>();
+        return streamResultSet(query, params, rs -> {
+            if (schema[0] == null) {
+                schema[0] = ResultSchema.from(rs.getMetaData());
+            }
+            callback.onRow(new ResultRow(schema[0], readValues(rs, schema[0].getColumnCount())));
+        });
+    }
+    
+    /**
+     * Executes SELECT query and hands the result set, positioned on each row in turn,
+     * to the callback. Lets callers read typed values without boxing them into rows.
+     * @param query SQL query
+     * @param params Query parameters
+     * @param callback Result set callback; must not advance or close the result set
+     * @return Number of rows processed
+     * @throws SQLException if query or callback fails
+     */
+    public long streamResultSet(String query, List<Object> params, ResultSetCallback callback) throws SQLException {
+        QueryMetrics.StatementMetrics metrics = QueryMetrics.forStatement(query);
+        Level logLevel = sampledLogLevel(metrics);
+        logger.log(logLevel, "Streaming query: {}", query);
+        
+        long rowCount = 0;
+        boolean failed = true;
+        
+        long start = System.nanoTime();
+        Connection conn = borrowConnection();
+        long waitNanos = System.nanoTime() - start;
+        
+        try {
+            inspectPlan(conn, query, params);
+        } catch (SQLException e) {
+            releaseConnection(conn);
+            recordExecution(metrics, query, params, start, 0, 0, waitNanos, true);
+            throw e;
+        }
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            // Set parameters if any
-            if (params != null) {
-                for (int i = 0; i < params.size(); i++) {
-                    stmt.setObject(i + 1, params.get(i));
+        try (PreparedStatement stmt = prepareStreamingStatement(conn, query)) {
+            bindParameters(stmt, params);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    callback.onRow(rs);
+                    rowCount++;
                 }
             }
+            failed = false;
+        } catch (SQLException e) {
+            logger.error("Failed to stream query", e);
+            throw e;
+        } finally {
+            releaseConnection(conn);
+            // Rows go straight to the callback, so no byte estimate is available here
+            recordExecution(metrics, query, params, start, rowCount, 0, waitNanos, failed);
+        }
+        
+        logger.log(logLevel, "Streamed {} rows", rowCount);
+        return rowCount;
+    }
+    
+    /**
+     * Executes SELECT query and returns a lazily populated stream of rows.
+     * The stream holds a database connection until it is closed, so it must be
+     * used in a try-with-resources block.
+     * @param query SQL query
+     * @param params Query parameters
+     * @return Stream of rows
+     * @throws SQLException if query fails
+     */
+    public Stream<ResultRow> openQueryStream(String query, List<Object> params) throws SQLException {
+        QueryMetrics.StatementMetrics metrics = QueryMetrics.forStatement(query);
+        logger.log(sampledLogLevel(metrics), "Opening query stream: {}", query);
+        
+        long start = System.nanoTime();
+        Connection conn = borrowConnection();
+        long waitNanos = System.nanoTime() - start;
+        PreparedStatement stmt = null;
+        
+        try {
+            inspectPlan(conn, query, params);
+            stmt = prepareStreamingStatement(conn, query);
+            bindParameters(stmt, params);
             
             ResultSet rs = stmt.executeQuery();
-            int columnCount = rs.getMetaData().getColumnCount();
+            ResultSchema schema = ResultSchema.from(rs.getMetaData());
+            int columnCount = schema.getColumnCount();
+            PreparedStatement openStmt = stmt;
+            long[] rowAndByteCounts = new long[2];
             
-            while (rs.next()) {
-                Map<String, Object> row = new HashMap<>();
-                
-                for (int i = 1; i <= columnCount; i++) {
-                    String columnName = rs.getMetaData().getColumnName(i);
-                    Object value = rs.getObject(i);
-                    row.put(columnName, value);
+            Spliterator<ResultRow> rows = new Spliterators.AbstractSpliterator<ResultRow>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super ResultRow> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        Object[] values = readValues(rs, columnCount);
+                        rowAndByteCounts[0]++;
+                        rowAndByteCounts[1] += estimateBytes(values);
+                        action.accept(new ResultRow(schema, values));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new RuntimeException("Failed to read next row from query stream", e);
+                    }
                 }
-                
-                results.add(row);
-            }
+            };
+            
+            return StreamSupport.stream(rows, false).onClose(() -> {
+                try {
+                    openStmt.close();
+                } catch (SQLException e) {
+                    logger.error("Failed to close query stream", e);
+                } finally {
+                    releaseConnection(conn);
+                    recordExecution(metrics, query, params, start, rowAndByteCounts[0], rowAndByteCounts[1], 
+                            waitNanos, false);
+                }
+            });
         } catch (SQLException e) {
-            logger.error("Failed to execute query", e);
+            logger.error("Failed to open query stream", e);
+            if (stmt != null) {
+                stmt.close();
+            }
+            releaseConnection(conn);
+            recordExecution(metrics, query, params, start, 0, 0, waitNanos, true);
             throw e;
         }
+    }
+    
+    /**
+     * Prepares a forward-only, read-only statement that fetches rows incrementally.
+     * MySQL only streams rows when the fetch size is Integer.MIN_VALUE, unless
+     * cursor-based fetching is enabled on the connection URL.
+     * @param conn Connection
+     * @param query SQL query
+     * @return Prepared statement
+     * @throws SQLException if statement cannot be prepared
+     */
+    private PreparedStatement prepareStreamingStatement(Connection conn, String query) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
         
-        logger.info("Query returned {} rows", results.size());
-        return results;
+        boolean cursorFetch = config.getProperty("db.url", "").contains("useCursorFetch=true");
+        stmt.setFetchSize(dialect == DatabaseDialect.MYSQL && !cursorFetch ? Integer.MIN_VALUE : streamFetchSize);
+        return stmt;
+    }
+    
+    /**
+     * Reads the current row into a value array
+     * @param rs Result set positioned on a row
+     * @param columnCount Number of columns
+     * @return Column values in result set order
+     * @throws SQLException if a value cannot be read
+     */
+    private Object[] readValues(ResultSet rs, int columnCount) throws SQLException {
+        Object[] values = new Object[columnCount];
+        
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = rs.getObject(i + 1);
+        }
+        return values;
+    }
+    
+    /**
+     * Estimates the size of a row as fetched: string length, byte array length,
+     * or 8 bytes for numbers, dates and other fixed-width values
+     * @param values Column values
+     * @return Estimated bytes
+     */
+    private static long estimateBytes(Object[] values) {
+        long bytes = 0;
+        
+        for (Object value : values) {
+            if (value instanceof CharSequence) {
+                bytes += ((CharSequence) value).length();
+            } else if (value instanceof byte[]) {
+                bytes += ((byte[]) value).length;
+            } else if (value != null) {
+                bytes += 8;
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * Chooses the level for a statement's routine log lines so that only one in
+     * db.query.log.sample executions of the same statement is logged at INFO
+     * @param metrics Statement metrics
+     * @return INFO for sampled executions, DEBUG otherwise
+     */
+    private Level sampledLogLevel(QueryMetrics.StatementMetrics metrics) {
+        return metrics.startExecution(logSampleRate) ? Level.INFO : Level.DEBUG;
+    }
+    
+    /**
+     * Records a finished statement in QueryMetrics and logs it if it was slow.
+     * Must be called after the statement's connection has been released.
+     * @param metrics Statement metrics
+     * @param query SQL query
+     * @param params Query parameters, may be null
+     * @param startNanos System.nanoTime() before the connection was borrowed
+     * @param rowCount Rows returned or affected
+     * @param byteCount Estimated bytes fetched
+     * @param waitNanos Time spent borrowing the connection
+     * @param failed Whether the statement failed
+     */
+    private void recordExecution(QueryMetrics.StatementMetrics metrics, String query, List<Object> params, 
+                                 long startNanos, long rowCount, long byteCount, long waitNanos, boolean failed) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        metrics.record(elapsedNanos, rowCount, byteCount, waitNanos, failed);
+        
+        if (!failed && slowQueryThresholdNanos > 0 && elapsedNanos >= slowQueryThresholdNanos) {
+            logger.warn("Slow query ({} ms, threshold {} ms): {} params={}\n{}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), TimeUnit.NANOSECONDS.toMillis(slowQueryThresholdNanos),
+                    query, params, explainQuery(query, params));
+        }
+    }
+    
+    /**
+     * Gets the plan of a SELECT query for slow-query logging: the plan inspectPlan kept
+     * for the statement if there is one, else plain EXPLAIN, so a slow query is never
+     * run again under EXPLAIN ANALYZE. Failures are reported in the returned text
+     * instead of being thrown.
+     * @param query SQL query
+     * @param params Query parameters, may be null
+     * @return Plan rows, one per line
+     */
+    private String explainQuery(String query, List<Object> params) {
+        if (!query.trim().regionMatches(true, 0, "SELECT", 0, 6)) {
+            return "(EXPLAIN skipped for non-SELECT statement)";
+        }
+        
+        QueryPlan inspected = QueryPlanInspector.getInspectedPlan(query);
+        if (inspected != null) {
+            return inspected.getPlanText();
+        }
+        
+        try {
+            Connection conn = borrowConnection();
+            try {
+                return planInspector.explainText(conn, query, params);
+            } finally {
+                releaseConnection(conn);
+            }
+        } catch (SQLException e) {
+            return "(EXPLAIN failed: " + e.getMessage() + ")";
+        }
+    }
+    
+    /**
+     * Captures the execution plan of a statement, with findings checked against
+     * db.plan.max.rows. With db.plan.analyze=true SELECTs are also run under EXPLAIN ANALYZE.
+     * @param query SQL statement
+     * @param params Statement parameters, may be null
+     * @return Query plan
+     * @throws SQLException if the statement cannot be explained
+     */
+    public QueryPlan explainPlan(String query, List<Object> params) throws SQLException {
+        Connection conn = borrowConnection();
+        
+        try {
+            return planInspector.inspect(conn, query, params);
+        } finally {
+            releaseConnection(conn);
+        }
+    }
+    
+    /**
+     * Captures the plan of a statement before its first execution when db.plan.inspect is set,
+     * and checks every execution against the captured plan
+     * @param conn Connection the statement will run on
+     * @param query SQL statement
+     * @param params Statement parameters, may be null
+     * @throws SQLException on every execution of a statement whose plan exceeds the row budget,
+     *         if db.plan.fail.on.violation is set
+     */
+    private void inspectPlan(Connection conn, String query, List<Object> params) throws SQLException {
+        if (!planInspectionEnabled) {
+            return;
+        }
+        
+        QueryPlan plan;
+        try {
+            plan = planInspector.inspectOnce(conn, query, params);
+        } catch (SQLException e) {
+            logger.warn("Failed to capture query plan for: {}", query, e);
+            return;
+        }
+        
+        if (plan != null && plan.isViolation() && planFailOnViolation) {
+            throw new SQLException("Query plan exceeds db.plan.max.rows: " + plan);
+        }
     }
     
     /**
@@ -134,60 +782,317 @@ public class DatabaseManager {
      * @throws SQLException if query fails
      */
     public int executeUpdate(String query, List<Object> params) throws SQLException {
-        logger.info("Executing update: {}", query);
+        QueryMetrics.StatementMetrics metrics = QueryMetrics.forStatement(query);
+        Level logLevel = sampledLogLevel(metrics);
+        logger.log(logLevel, "Executing update: {}", query);
         
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            // Set parameters if any
-            if (params != null) {
-                for (int i = 0; i < params.size(); i++) {
-                    stmt.setObject(i + 1, params.get(i));
-                }
-            }
+        int rowsAffected = 0;
+        boolean failed = true;
+        
+        long start = System.nanoTime();
+        Connection conn = borrowConnection();
+        markIsolatedWrite();
+        long waitNanos = System.nanoTime() - start;
+        PreparedStatement stmt = null;
+        
+        try {
+            inspectPlan(conn, query, params);
+            stmt = prepareStatement(conn, query, Statement.NO_GENERATED_KEYS);
+            bindParameters(stmt, params);
             
-            int rowsAffected = stmt.executeUpdate();
-            logger.info("Update affected {} rows", rowsAffected);
+            rowsAffected = stmt.executeUpdate();
+            failed = false;
+            logger.log(logLevel, "Update affected {} rows", rowsAffected);
             return rowsAffected;
         } catch (SQLException e) {
             logger.error("Failed to execute update", e);
             throw e;
+        } finally {
+            releaseStatement(stmt);
+            releaseConnection(conn);
+            recordExecution(metrics, query, params, start, rowsAffected, 0, waitNanos, failed);
         }
     }
     
     /**
-     * Executes INSERT query and returns generated keys
+     * Executes INSERT query and returns generated keys. Its plan is not inspected.
      * @param query SQL query
      * @param params Query parameters
      * @return Generated keys
      * @throws SQLException if query fails
      */
     public List<Object> executeInsert(String query, List<Object> params) throws SQLException {
-        logger.info("Executing insert: {}", query);
+        QueryMetrics.StatementMetrics metrics = QueryMetrics.forStatement(query);
+        Level logLevel = sampledLogLevel(metrics);
+        logger.log(logLevel, "Executing insert: {}", query);
         
         List<Object> generatedKeys = new ArrayList<>();
+        int rowsAffected = 0;
+        boolean failed = true;
         
-        try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            // Set parameters if any
-            if (params != null) {
-                for (int i = 0; i < params.size(); i++) {
-                    stmt.setObject(i + 1, params.get(i));
-                }
-            }
+        long start = System.nanoTime();
+        Connection conn = borrowConnection();
+        markIsolatedWrite();
+        long waitNanos = System.nanoTime() - start;
+        PreparedStatement stmt = null;
+        
+        try {
+            stmt = prepareStatement(conn, query, Statement.RETURN_GENERATED_KEYS);
+            bindParameters(stmt, params);
             
-            int rowsAffected = stmt.executeUpdate();
-            logger.info("Insert affected {} rows", rowsAffected);
+            rowsAffected = stmt.executeUpdate();
+            logger.log(logLevel, "Insert affected {} rows", rowsAffected);
             
-            ResultSet rs = stmt.getGeneratedKeys();
-            while (rs.next()) {
-                generatedKeys.add(rs.getObject(1));
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                while (rs.next()) {
+                    generatedKeys.add(rs.getObject(1));
+                }
             }
+            failed = false;
         } catch (SQLException e) {
             logger.error("Failed to execute insert", e);
             throw e;
+        } finally {
+            releaseStatement(stmt);
+            releaseConnection(conn);
+            recordExecution(metrics, query, params, start, rowsAffected, 0, waitNanos, failed);
         }
         
         return generatedKeys;
     }
     
+    /**
+     * Gets the configured batch size for batch inserts
+     * @return Rows per batch
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * Executes INSERT query once per parameter row using JDBC batching, with the
+     * configured db.batch.size
+     * @param query SQL query
+     * @param paramRows Parameters for each row
+     * @return Generated keys in insertion order and throughput
+     * @throws SQLException if query fails
+     */
+    public BatchInsertResult executeBatchInsert(String query, Collection<List<Object>> paramRows) throws SQLException {
+        return executeBatchInsert(query, paramRows, batchSize);
+    }
+    
+    /**
+     * Executes INSERT query once per parameter row using JDBC batching. Each chunk of
+     * batchSize rows is sent with executeBatch and committed in its own transaction,
+     * so a failure rolls back only the chunk in progress. With db.batch.rewrite=true
+     * MySQL rewrites each chunk into a multi-row INSERT.
+     * @param query SQL query
+     * @param paramRows Parameters for each row
+     * @param batchSize Rows per batch and transaction
+     * @return Generated keys in insertion order and throughput
+     * @throws SQLException if query fails
+     */
+    public BatchInsertResult executeBatchInsert(String query, Collection<List<Object>> paramRows, int batchSize) 
+            throws SQLException {
+        QueryMetrics.StatementMetrics metrics = QueryMetrics.forStatement(query);
+        logger.info("Executing batch insert of {} rows (batch size {}): {}", paramRows.size(), batchSize, query);
+        
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        
+        long start = System.nanoTime();
+        List<Object> generatedKeys = new ArrayList<>(paramRows.size());
+        int rowCount = 0;
+        boolean failed = true;
+        
+        // Inside an isolated transaction the chunks join it instead of committing
+        boolean commitChunks = !isInIsolatedTransaction();
+        Connection conn = borrowConnection();
+        markIsolatedWrite();
+        long waitNanos = System.nanoTime() - start;
+        // Read inside the try, so the connection is released even if this fails; null until read
+        Boolean autoCommit = null;
+        
+        try {
+            autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                int pending = 0;
+                
+                for (List<Object> params : paramRows) {
+                    bindParameters(stmt, params);
+                    stmt.addBatch();
+                    
+                    if (++pending == batchSize) {
+                        rowCount += flushBatch(conn, stmt, generatedKeys, commitChunks);
+                        pending = 0;
+                    }
+                }
+                
+                if (pending > 0) {
+                    rowCount += flushBatch(conn, stmt, generatedKeys, commitChunks);
+                }
+            }
+            failed = false;
+        } catch (SQLException e) {
+            logger.error("Failed to execute batch insert after {} rows", rowCount, e);
+            if (commitChunks) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackError) {
+                    logger.error("Failed to roll back batch insert", rollbackError);
+                }
+            }
+            throw e;
+        } finally {
+            if (commitChunks && autoCommit != null) {
+                try {
+                    conn.setAutoCommit(autoCommit);
+                } catch (SQLException e) {
+                    logger.error("Failed to restore auto-commit", e);
+                }
+            }
+            releaseConnection(conn);
+            // Batches are not explained when slow: the plan of a single INSERT says little about them
+            recordExecution(metrics, query, null, start, rowCount, 0, waitNanos, failed);
+        }
+        
+        BatchInsertResult result = new BatchInsertResult(generatedKeys, rowCount, System.nanoTime() - start);
+        logger.info("Batch insert completed: {}", result);
+        return result;
+    }
+    
+    /**
+     * Executes the pending batch, collects its generated keys and optionally commits it
+     * @param conn Connection
+     * @param stmt Statement with pending batch
+     * @param generatedKeys Keys collected so far
+     * @param commit Whether to commit the chunk
+     * @return Number of rows inserted
+     * @throws SQLException if batch fails
+     */
+    private int flushBatch(Connection conn, PreparedStatement stmt, List<Object> generatedKeys, boolean commit) 
+            throws SQLException {
+        int[] counts = stmt.executeBatch();
+        
+        try (ResultSet rs = stmt.getGeneratedKeys()) {
+            while (rs.next()) {
+                generatedKeys.add(rs.getObject(1));
+            }
+        }
+        
+        if (commit) {
+            conn.commit();
+        }
+        return counts.length;
+    }
+    
+    /**
+     * Runs independent SELECT queries concurrently with the configured db.parallel.max
+     * @param queries SQL queries by name
+     * @return Query results by name, in the order the queries were given
+     * @throws SQLException if any query fails
+     */
+    public Map<String, QueryResult> executeQueriesParallel(Map<String, String> queries) throws SQLException {
+        Map<String, QueryTask<QueryResult>> tasks = new LinkedHashMap<>();
+        for (Map.Entry<String, String> query : queries.entrySet()) {
+            tasks.put(query.getKey(), () -> executeCompactQuery(query.getValue(), null));
+        }
+        return executeParallel(tasks, parallelism);
+    }
+    
+    /**
+     * Runs independent database tasks concurrently with the configured db.parallel.max
+     * @param tasks Tasks by name
+     * @return Task results by name, in the order the tasks were given
+     * @throws SQLException if any task fails
+     */
+    public <T> Map<String, T> executeParallel(Map<String, QueryTask<T>> tasks) throws SQLException {
+        return executeParallel(tasks, parallelism);
+    }
+    
+    /**
+     * Runs independent database tasks concurrently, at most maxParallelism at a time.
+     * In pooled mode each task borrows its own connection from the pool. Without a pool,
+     * or when the calling thread has an isolated transaction open, tasks run one after
+     * another on the calling thread so they share its connection and see its changes.
+     * Tasks run on virtual threads where the JDK supports them. If a task fails the
+     * remaining tasks are cancelled.
+     * @param tasks Tasks by name
+     * @param maxParallelism Maximum number of tasks running at once
+     * @return Task results by name, in the order the tasks were given
+     * @throws SQLException if any task fails
+     */
+    public <T> Map<String, T> executeParallel(Map<String, QueryTask<T>> tasks, int maxParallelism) throws SQLException {
+        Map<String, T> results = new LinkedHashMap<>();
+        
+        if (!pooled || isInIsolatedTransaction() || maxParallelism <= 1 || tasks.size() <= 1) {
+            for (Map.Entry<String, QueryTask<T>> task : tasks.entrySet()) {
+                results.put(task.getKey(), task.getValue().call());
+            }
+            return results;
+        }
+        
+        logger.info("Running {} database tasks with parallelism {}", tasks.size(), maxParallelism);
+        
+        int threads = Math.min(maxParallelism, tasks.size());
+        Semaphore permits = new Semaphore(threads);
+        ExecutorService executor = TaskExecutors.newExecutor("db-parallel", threads);
+        Map<String, Future<T>> futures = new LinkedHashMap<>();
+        
+        try {
+            for (Map.Entry<String, QueryTask<T>> task : tasks.entrySet()) {
+                futures.put(task.getKey(), executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return task.getValue().call();
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            
+            for (Map.Entry<String, Future<T>> future : futures.entrySet()) {
+                results.put(future.getKey(), awaitTask(future.getKey(), future.getValue()));
+            }
+        } finally {
+            for (Future<T> future : futures.values()) {
+                future.cancel(true);
+            }
+            executor.shutdown();
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Waits for a parallel task and unwraps its failure
+     * @param name Task name
+     * @param future Task future
+     * @return Task result
+     * @throws SQLException if the task failed or the wait was interrupted
+     */
+    private <T> T awaitTask(String name, Future<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for database task: " + name, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            logger.error("Database task failed: {}", name, cause);
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException("Database task failed: " + name, cause);
+        }
+    }
+    
     /**
      * Checks if table exists
      * @param tableName Table name
@@ -195,12 +1100,16 @@ public class DatabaseManager {
      * @throws SQLException if query fails
      */
     public boolean tableExists(String tableName) throws SQLException {
-        try (ResultSet rs = connection.getMetaData().getTables(
+        Connection conn = borrowConnection();
+        
+        try (ResultSet rs = conn.getMetaData().getTables(
                 null, null, tableName, new String[]{"TABLE"})) {
             return rs.next();
         } catch (SQLException e) {
             logger.error("Failed to check if table exists", e);
             throw e;
+        } finally {
+            releaseConnection(conn);
         }
     }
     
@@ -211,17 +1120,135 @@ public class DatabaseManager {
      * @throws SQLException if query fails
      */
     public int getRowCount(String tableName) throws SQLException {
-        String query = "SELECT COUNT(*) AS count FROM " + tableName;
+        checkIdentifier(tableName);
+        String query = "SELECT COUNT(*) AS row_count FROM " + tableName;
+        
+        // Runs through executeCompactQuery so the count gets plan inspection, metrics and slow-query logging
+        QueryResult result = executeCompactQuery(query, null);
+        return result.isEmpty() ? 0 : (int) result.getRow(0).getLong("row_count");
+    }
+    
+    /**
+     * Computes an order-independent fingerprint of a whole table
+     * @param tableName Table name
+     * @param columns Columns to hash; include the key so that moved values are detected
+     * @return Table fingerprint
+     * @throws SQLException if query fails
+     */
+    public TableFingerprint fingerprintTable(String tableName, List<String> columns) throws SQLException {
+        return fingerprintTable(tableName, columns, null, null);
+    }
+    
+    /**
+     * Computes an order-independent fingerprint of the rows matching a filter. MySQL and H2
+     * aggregate server-side over DatabaseDialect.rowHashExpression, returning a single row;
+     * other databases stream the columns and hash each row client-side.
+     * @param tableName Table name
+     * @param columns Columns to hash; include the key so that moved values are detected
+     * @param filter SQL condition, or null for the whole table
+     * @param params Filter parameters, may be null
+     * @return Table fingerprint
+     * @throws SQLException if query fails
+     */
+    public TableFingerprint fingerprintTable(String tableName, List<String> columns, String filter, List<Object> params) 
+            throws SQLException {
+        checkIdentifier(tableName);
+        for (String column : columns) {
+            checkIdentifier(column);
+        }
+        String where = filter == null ? "" : " WHERE " + filter;
+        String hashExpression = dialect.rowHashExpression(columns);
+        
+        if (hashExpression != null) {
+            String query = "SELECT COUNT(*) AS row_count, SUM(" + hashExpression + ") AS hash_sum FROM " + tableName + where;
+            ResultRow row = executeCompactQuery(query, params).getRow(0);
+            return new TableFingerprint(tableName, filter, row.getLong("row_count"), TableFingerprint.toHash(row.get("hash_sum")));
+        }
         
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-            if (rs.next()) {
-                return rs.getInt("count");
+        long[] hashSum = new long[1];
+        String[] values = new String[columns.size()];
+        String query = "SELECT " + String.join(", ", columns) + " FROM " + tableName + where;
+        
+        long rowCount = streamResultSet(query, params, rs -> {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getString(i + 1);
             }
-            return 0;
-        } catch (SQLException e) {
-            logger.error("Failed to get row count for {}", tableName, e);
-            throw e;
+            hashSum[0] += TableFingerprint.rowHash(values);
+        });
+        return new TableFingerprint(tableName, filter, rowCount, hashSum[0]);
+    }
+    
+    /**
+     * Rejects table and column names that are not plain identifiers, since they are
+     * concatenated into SQL
+     * @param identifier Table or column name
+     */
+    private static void checkIdentifier(String identifier) {
+        if (identifier == null || !IDENTIFIER.matcher(identifier).matches()) {
+            throw new IllegalArgumentException("Invalid SQL identifier: " + identifier);
+        }
+    }
+    
+    /**
+     * Receives the rows of a buffered query as they are read
+     */
+    @FunctionalInterface
+    private interface RowCollector {
+        void add(ResultSchema schema, Object[] values);
+    }
+    
+    /**
+     * Callback receiving rows from a streaming query
+     */
+    @FunctionalInterface
+    public interface RowCallback {
+        /**
+         * Handles a single row
+         * @param row Row data with index- and name-based access
+         * @throws SQLException to abort the query
+         */
+        void onRow(ResultRow row) throws SQLException;
+    }
+    
+    /**
+     * Unit of database work run by executeParallel
+     */
+    @FunctionalInterface
+    public interface QueryTask<T> {
+        /**
+         * Runs the task
+         * @return Task result
+         * @throws SQLException if the task fails
+         */
+        T call() throws SQLException;
+    }
+    
+    /**
+     * Callback receiving the live result set of a streaming query
+     */
+    @FunctionalInterface
+    public interface ResultSetCallback {
+        /**
+         * Handles the row the result set is positioned on
+         * @param rs Result set
+         * @throws SQLException to abort the query
+         */
+        void onRow(ResultSet rs) throws SQLException;
+    }
+    
+    /**
+     * Connection and state captured by beginIsolatedTransaction
+     */
+    private static class IsolatedTransaction {
+        private final Connection connection;
+        private final boolean autoCommit;
+        private final Savepoint savepoint;
+        private boolean written;
+        
+        IsolatedTransaction(Connection connection, boolean autoCommit, Savepoint savepoint) {
+            this.connection = connection;
+            this.autoCommit = autoCommit;
+            this.savepoint = savepoint;
         }
     }
 }
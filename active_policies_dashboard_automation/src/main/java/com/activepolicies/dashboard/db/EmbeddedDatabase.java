@@ -0,0 +1,228 @@
+package com.activepolicies.dashboard.db;
+
+import com.activepolicies.dashboard.utils.ConfigurationManager;
+import com.activepolicies.dashboard.utils.PolicyDataGenerator;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded stand-in for the policies database, enabled with db.embedded.enabled.
+ * Intended for an in-memory H2 database in MySQL compatibility mode: on first
+ * connection the schema PolicyDatabaseService expects is created and seeded from
+ * the policy test data CSV or a generated dataset, and a baseline snapshot is taken
+ * that test classes can restore.
+ */
+public class EmbeddedDatabase {
+    private static final Logger logger = LogManager.getLogger(EmbeddedDatabase.class);
+    private static final Set<String> startedDatabases = ConcurrentHashMap.newKeySet();
+    private static final String SCHEMA_RESOURCE = "/db/policies_schema.sql";
+    private static final String SEED_QUERY =
+            "INSERT INTO policies (policy_id, policy_type, start_date, end_date, premium, " +
+            "customer_name, customer_email, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public static final String BASELINE_SNAPSHOT = "baseline";
+
+    private final DatabaseManager dbManager;
+    private final ConfigurationManager config;
+
+    /**
+     * Constructor
+     * @param dbManager Database manager connected to the embedded database
+     */
+    public EmbeddedDatabase(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+        this.config = ConfigurationManager.getInstance();
+    }
+
+    /**
+     * Checks if the embedded database is enabled for the current environment
+     * @param config Configuration manager
+     * @return true if db.embedded.enabled is set
+     */
+    public static boolean isEnabled(ConfigurationManager config) {
+        return Boolean.parseBoolean(config.getProperty("db.embedded.enabled", "false"));
+    }
+
+    /**
+     * Creates and seeds the database once per JVM
+     * @throws SQLException if schema creation or seeding fails
+     */
+    public void start() throws SQLException {
+        String dbUrl = config.getProperty("db.url");
+
+        synchronized (EmbeddedDatabase.class) {
+            if (startedDatabases.contains(dbUrl)) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            createSchema();
+            int rows = seed();
+            snapshot(BASELINE_SNAPSHOT);
+            startedDatabases.add(dbUrl);
+
+            logger.info("Embedded database started with {} policies in {} ms",
+                    rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Saves the current contents of the policies table under a name
+     * @param name Snapshot name
+     * @throws SQLException if the snapshot cannot be taken
+     */
+    public void snapshot(String name) throws SQLException {
+        String snapshotTable = snapshotTable(name);
+
+        dbManager.executeUpdate("DROP TABLE IF EXISTS " + snapshotTable);
+        dbManager.executeUpdate("CREATE TABLE " + snapshotTable + " AS SELECT * FROM policies");
+        logger.info("Saved policies snapshot: {}", name);
+    }
+
+    /**
+     * Replaces the contents of the policies table with a snapshot, resets
+     * the ID sequence to follow the restored rows and clears policy read caches
+     * @param name Snapshot name
+     * @throws SQLException if the snapshot does not exist or cannot be restored
+     */
+    public void restore(String name) throws SQLException {
+        String snapshotTable = snapshotTable(name);
+
+        dbManager.executeUpdate("DELETE FROM policies");
+        dbManager.executeUpdate("INSERT INTO policies SELECT * FROM " + snapshotTable);
+        resetIdSequence();
+        PolicyReadCache.clearAll();
+        logger.info("Restored policies snapshot: {}", name);
+    }
+
+    /**
+     * Executes the schema script
+     * @throws SQLException if a statement fails
+     */
+    private void createSchema() throws SQLException {
+        String script;
+
+        try (InputStream input = EmbeddedDatabase.class.getResourceAsStream(SCHEMA_RESOURCE)) {
+            if (input == null) {
+                throw new SQLException("Schema resource not found: " + SCHEMA_RESOURCE);
+            }
+            script = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Failed to read schema resource: " + SCHEMA_RESOURCE, e);
+        }
+
+        for (String statement : script.replaceAll("(?m)^--.*$", "").split(";")) {
+            if (!statement.isBlank()) {
+                dbManager.executeUpdate(statement.trim());
+            }
+        }
+    }
+
+    /**
+     * Loads the configured seed data
+     * @return Number of policies loaded
+     * @throws SQLException if loading fails
+     */
+    private int seed() throws SQLException {
+        String seedSource = config.getProperty("db.embedded.seed", "csv");
+        List<List<Object>> rows;
+
+        switch (seedSource.toLowerCase()) {
+            case "csv":
+                rows = readCsvSeed(config.getProperty("db.embedded.seed.file"));
+                break;
+            case "generated":
+                rows = generateSeed(Integer.parseInt(config.getProperty("db.embedded.seed.rows", "10000")));
+                break;
+            case "none":
+                return 0;
+            default:
+                throw new IllegalArgumentException("Unsupported embedded seed source: " + seedSource);
+        }
+
+        BatchInsertResult result = dbManager.executeBatchInsert(SEED_QUERY, rows);
+        resetIdSequence();
+        return result.getRowCount();
+    }
+
+    /**
+     * Reads seed rows from a policy CSV with the PolicyID,PolicyType,StartDate,EndDate,
+     * Premium,CustomerName,CustomerEmail,Status layout. IDs such as POL-1001 become 1001.
+     * @param file CSV file path
+     * @return Seed rows
+     * @throws SQLException if the file cannot be read
+     */
+    private List<List<Object>> readCsvSeed(String file) throws SQLException {
+        List<List<Object>> rows = new ArrayList<>();
+
+        try (CSVReader reader = new CSVReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            reader.readNext(); // header
+            String[] line;
+
+            while ((line = reader.readNext()) != null) {
+                if (line.length < 8) {
+                    continue;
+                }
+                rows.add(Arrays.asList(
+                        Long.parseLong(line[0].replaceAll("\\D", "")),
+                        line[1], line[2], line[3], Double.parseDouble(line[4]),
+                        line[5], line[6], line[7]));
+            }
+        } catch (IOException | CsvValidationException e) {
+            throw new SQLException("Failed to read seed file: " + file, e);
+        }
+        return rows;
+    }
+
+    /**
+     * Generates deterministic synthetic seed rows with PolicyDataGenerator,
+     * seeded from db.embedded.seed.random (default 42)
+     * @param count Number of policies
+     * @return Seed rows
+     */
+    private List<List<Object>> generateSeed(int count) {
+        PolicyDataGenerator generator = PolicyDataGenerator.builder()
+                .seed(Long.parseLong(config.getProperty("db.embedded.seed.random", "42")))
+                .build();
+        List<List<Object>> rows = new ArrayList<>(count);
+
+        for (Map<String, Object> policy : generator.generate(count)) {
+            rows.add(Arrays.asList(
+                    Long.parseLong(policy.get("policyId").toString().replaceAll("\\D", "")),
+                    policy.get("type"), policy.get("startDate"), policy.get("endDate"), policy.get("premium"),
+                    policy.get("customerName"), policy.get("customerEmail"), policy.get("status")));
+        }
+        return rows;
+    }
+
+    /**
+     * Restarts the policy_id sequence after the highest existing ID
+     * @throws SQLException if the sequence cannot be reset
+     */
+    private void resetIdSequence() throws SQLException {
+        List<Map<String, Object>> result = dbManager.executeQuery(
+                "SELECT COALESCE(MAX(policy_id), 0) + 1 AS next_id FROM policies");
+        long nextId = ((Number) result.get(0).get("next_id")).longValue();
+
+        dbManager.executeUpdate("ALTER SEQUENCE policies_id_seq RESTART WITH " + nextId);
+    }
+
+    private String snapshotTable(String name) {
+        return "policies_snapshot_" + name.replaceAll("[^A-Za-z0-9_]", "_");
+    }
+}
@@ -0,0 +1,113 @@
+package com.activepolicies.dashboard.db;
+
+import com.activepolicies.dashboard.utils.ConfigurationManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Fingerprints of data that passed verification, persisted across runs in a
+ * properties file, so verification suites can skip data that has not changed.
+ * Record a fingerprint only after the verification it was taken for succeeded.
+ *
+ * <pre>
+ * TableFingerprint current = policyDbService.getPoliciesFingerprint();
+ * if (!store.isUnchanged("ui-policies", current)) {
+ *     ... verify ...
+ *     store.record("ui-policies", current);
+ * }
+ * </pre>
+ */
+public class FingerprintStore {
+    private static final Logger logger = LogManager.getLogger(FingerprintStore.class);
+
+    private final Path file;
+    private final Properties fingerprints = new Properties();
+
+    /**
+     * Constructor. Loads the file if it exists.
+     * @param file Properties file holding the fingerprints
+     */
+    public FingerprintStore(Path file) {
+        this.file = file;
+
+        if (Files.exists(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                fingerprints.load(input);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read fingerprint store: " + file, e);
+            }
+            logger.info("Loaded {} fingerprints from {}", fingerprints.size(), file);
+        }
+    }
+
+    /**
+     * Opens the store in the configured verification.state.dir
+     * @return Fingerprint store
+     */
+    public static FingerprintStore fromConfig() {
+        String stateDir = ConfigurationManager.getInstance().getProperty("verification.state.dir", "target/verification-state");
+        return new FingerprintStore(Paths.get(stateDir, "fingerprints.properties"));
+    }
+
+    /**
+     * Checks if data still matches the fingerprint recorded for a key
+     * @param key Verification name
+     * @param current Current fingerprint
+     * @return true if a fingerprint was recorded and matches
+     */
+    public synchronized boolean isUnchanged(String key, TableFingerprint current) {
+        String recorded = fingerprints.getProperty(key);
+        boolean unchanged = current.getValue().equals(recorded);
+
+        logger.info("Fingerprint of {} {}: {}", key, unchanged ? "unchanged" : "changed", current);
+        return unchanged;
+    }
+
+    /**
+     * Records a fingerprint after successful verification and saves the store
+     * @param key Verification name
+     * @param fingerprint Fingerprint the verification ran against
+     */
+    public synchronized void record(String key, TableFingerprint fingerprint) {
+        fingerprints.setProperty(key, fingerprint.getValue());
+        save();
+    }
+
+    /**
+     * Forgets a fingerprint, e.g. after a failed verification, and saves the store
+     * @param key Verification name
+     */
+    public synchronized void remove(String key) {
+        if (fingerprints.remove(key) != null) {
+            save();
+        }
+    }
+
+    /**
+     * Writes the store to a temporary file and moves it into place, so a crash
+     * never leaves a truncated store behind
+     */
+    private void save() {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, "fingerprints", ".tmp");
+
+            try (OutputStream output = Files.newOutputStream(tempFile)) {
+                fingerprints.store(output, "Fingerprints of verified data");
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save fingerprint store: " + file, e);
+        }
+    }
+}
@@ -0,0 +1,442 @@
+package com.activepolicies.dashboard.db;
+
+import com.activepolicies.dashboard.constants.PolicyTypes;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed, column-oriented batch of policies. Premiums are held in a double[],
+ * dates as int[] epoch days and the policy type as a byte code into a
+ * dictionary seeded from PolicyTypes. Filters return a BitSet selection that
+ * can be combined with and/or and passed to the aggregate methods.
+ */
+public class PolicyBatch {
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final int size;
+    private final String[] policyIds;
+    private final byte[] typeCodes;
+    private final List<String> typeDictionary;
+    private final double[] premiums;
+    private final int[] startDays;
+    private final int[] endDays;
+    private final String[] customerNames;
+    private final String[] customerEmails;
+    private final String[] statuses;
+    private Map<String, Integer> idIndex;
+
+    private PolicyBatch(Builder builder) {
+        this.size = builder.size;
+        this.policyIds = Arrays.copyOf(builder.policyIds, size);
+        this.typeCodes = Arrays.copyOf(builder.typeCodes, size);
+        this.typeDictionary = Collections.unmodifiableList(new ArrayList<>(builder.typeDictionary));
+        this.premiums = Arrays.copyOf(builder.premiums, size);
+        this.startDays = Arrays.copyOf(builder.startDays, size);
+        this.endDays = Arrays.copyOf(builder.endDays, size);
+        this.customerNames = Arrays.copyOf(builder.customerNames, size);
+        this.customerEmails = Arrays.copyOf(builder.customerEmails, size);
+        this.statuses = Arrays.copyOf(builder.statuses, size);
+    }
+
+    /**
+     * Creates a batch builder
+     * @param initialCapacity Expected number of policies
+     * @return Builder
+     */
+    public static Builder builder(int initialCapacity) {
+        return new Builder(initialCapacity);
+    }
+
+    /**
+     * Gets number of policies in the batch
+     * @return Policy count
+     */
+    public int size() {
+        return size;
+    }
+
+    public String getPolicyId(int index) {
+        return policyIds[index];
+    }
+
+    public String getType(int index) {
+        return typeDictionary.get(typeCodes[index]);
+    }
+
+    public byte getTypeCode(int index) {
+        return typeCodes[index];
+    }
+
+    public double getPremium(int index) {
+        return premiums[index];
+    }
+
+    public LocalDate getStartDate(int index) {
+        return startDays[index] == NO_DATE ? null : LocalDate.ofEpochDay(startDays[index]);
+    }
+
+    public LocalDate getEndDate(int index) {
+        return endDays[index] == NO_DATE ? null : LocalDate.ofEpochDay(endDays[index]);
+    }
+
+    public String getCustomerName(int index) {
+        return customerNames[index];
+    }
+
+    public String getCustomerEmail(int index) {
+        return customerEmails[index];
+    }
+
+    public String getStatus(int index) {
+        return statuses[index];
+    }
+
+    /**
+     * Gets the type dictionary. A type code is an index into this list.
+     * @return Policy types by code
+     */
+    public List<String> getTypeDictionary() {
+        return typeDictionary;
+    }
+
+    /**
+     * Gets the dictionary code of a policy type
+     * @param policyType Policy type
+     * @return Type code, or -1 if no policy in the batch has that type
+     */
+    public int typeCodeOf(String policyType) {
+        return typeDictionary.indexOf(policyType);
+    }
+
+    /**
+     * Finds a policy by ID
+     * @param policyId Policy ID
+     * @return Row index, or -1 if the policy is not in the batch
+     */
+    public synchronized int indexOf(String policyId) {
+        if (idIndex == null) {
+            idIndex = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                idIndex.put(policyIds[i], i);
+            }
+        }
+
+        Integer index = idIndex.get(policyId);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Selects all policies
+     * @return Selection with every row set
+     */
+    public BitSet selectAll() {
+        BitSet selection = new BitSet(size);
+        selection.set(0, size);
+        return selection;
+    }
+
+    /**
+     * Selects policies of a type
+     * @param policyType Policy type
+     * @return Selection
+     */
+    public BitSet filterByType(String policyType) {
+        BitSet selection = new BitSet(size);
+        int code = typeCodeOf(policyType);
+
+        if (code < 0) {
+            return selection;
+        }
+
+        byte typeCode = (byte) code;
+        for (int i = 0; i < size; i++) {
+            if (typeCodes[i] == typeCode) {
+                selection.set(i);
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * Selects policies with a premium in the inclusive range
+     * @param min Minimum premium
+     * @param max Maximum premium
+     * @return Selection
+     */
+    public BitSet filterPremiumBetween(double min, double max) {
+        BitSet selection = new BitSet(size);
+
+        for (int i = 0; i < size; i++) {
+            double premium = premiums[i];
+            if (premium >= min && premium <= max) {
+                selection.set(i);
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * Selects policies that start on or after startDate and end on or before endDate,
+     * matching PolicyDatabaseService.getPoliciesByDateRange
+     * @param startDate Start date
+     * @param endDate End date
+     * @return Selection
+     */
+    public BitSet filterByDateRange(LocalDate startDate, LocalDate endDate) {
+        BitSet selection = new BitSet(size);
+        int from = (int) startDate.toEpochDay();
+        int to = (int) endDate.toEpochDay();
+
+        for (int i = 0; i < size; i++) {
+            if (startDays[i] != NO_DATE && endDays[i] != NO_DATE && startDays[i] >= from && endDays[i] <= to) {
+                selection.set(i);
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * Selects policies in force on a date
+     * @param date Date
+     * @return Selection
+     */
+    public BitSet filterActiveOn(LocalDate date) {
+        BitSet selection = new BitSet(size);
+        int day = (int) date.toEpochDay();
+
+        for (int i = 0; i < size; i++) {
+            if (startDays[i] != NO_DATE && endDays[i] != NO_DATE && startDays[i] <= day && endDays[i] >= day) {
+                selection.set(i);
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * Selects policies with a status
+     * @param status Status
+     * @return Selection
+     */
+    public BitSet filterByStatus(String status) {
+        BitSet selection = new BitSet(size);
+
+        for (int i = 0; i < size; i++) {
+            if (status.equals(statuses[i])) {
+                selection.set(i);
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * Gets total premium of the selected policies, skipping unknown (NaN) premiums like SQL SUM
+     * @param selection Selection
+     * @return Total premium
+     */
+    public double sumPremium(BitSet selection) {
+        double total = 0;
+
+        for (int i = selection.nextSetBit(0); i >= 0 && i < size; i = selection.nextSetBit(i + 1)) {
+            if (!Double.isNaN(premiums[i])) {
+                total += premiums[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets average premium of the selected policies with a known premium, like SQL AVG
+     * @param selection Selection
+     * @return Average premium, or 0 if no selected policy has a premium
+     */
+    public double averagePremium(BitSet selection) {
+        double total = 0;
+        int count = 0;
+
+        for (int i = selection.nextSetBit(0); i >= 0 && i < size; i = selection.nextSetBit(i + 1)) {
+            if (!Double.isNaN(premiums[i])) {
+                total += premiums[i];
+                count++;
+            }
+        }
+        return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * Gets minimum premium of the selected policies
+     * @param selection Selection
+     * @return Minimum premium, or NaN if nothing is selected
+     */
+    public double minPremium(BitSet selection) {
+        double min = Double.NaN;
+
+        for (int i = selection.nextSetBit(0); i >= 0 && i < size; i = selection.nextSetBit(i + 1)) {
+            if (Double.isNaN(min) || premiums[i] < min) {
+                min = premiums[i];
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Gets maximum premium of the selected policies
+     * @param selection Selection
+     * @return Maximum premium, or NaN if nothing is selected
+     */
+    public double maxPremium(BitSet selection) {
+        double max = Double.NaN;
+
+        for (int i = selection.nextSetBit(0); i >= 0 && i < size; i = selection.nextSetBit(i + 1)) {
+            if (Double.isNaN(max) || premiums[i] > max) {
+                max = premiums[i];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Counts selected policies per type in a single pass
+     * @param selection Selection
+     * @return Policy count by type, in dictionary order
+     */
+    public Map<String, Integer> countByType(BitSet selection) {
+        int[] counts = new int[typeDictionary.size()];
+
+        for (int i = selection.nextSetBit(0); i >= 0 && i < size; i = selection.nextSetBit(i + 1)) {
+            counts[typeCodes[i]]++;
+        }
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            result.put(typeDictionary.get(code), counts[code]);
+        }
+        return result;
+    }
+
+    /**
+     * Sums premiums of selected policies per type in a single pass, skipping unknown premiums
+     * @param selection Selection
+     * @return Total premium by type, in dictionary order
+     */
+    public Map<String, Double> premiumByType(BitSet selection) {
+        double[] totals = new double[typeDictionary.size()];
+
+        for (int i = selection.nextSetBit(0); i >= 0 && i < size; i = selection.nextSetBit(i + 1)) {
+            if (!Double.isNaN(premiums[i])) {
+                totals[typeCodes[i]] += premiums[i];
+            }
+        }
+
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int code = 0; code < totals.length; code++) {
+            result.put(typeDictionary.get(code), totals[code]);
+        }
+        return result;
+    }
+
+    /**
+     * Builder that grows the column arrays as policies are added
+     */
+    public static class Builder {
+        private final List<String> typeDictionary = new ArrayList<>(PolicyTypes.TYPES);
+        private final Map<String, Byte> typeCodeLookup = new HashMap<>();
+        private int size;
+        private String[] policyIds;
+        private byte[] typeCodes;
+        private double[] premiums;
+        private int[] startDays;
+        private int[] endDays;
+        private String[] customerNames;
+        private String[] customerEmails;
+        private String[] statuses;
+
+        private Builder(int initialCapacity) {
+            int capacity = Math.max(initialCapacity, 16);
+            policyIds = new String[capacity];
+            typeCodes = new byte[capacity];
+            premiums = new double[capacity];
+            startDays = new int[capacity];
+            endDays = new int[capacity];
+            customerNames = new String[capacity];
+            customerEmails = new String[capacity];
+            statuses = new String[capacity];
+
+            for (int code = 0; code < typeDictionary.size(); code++) {
+                typeCodeLookup.put(typeDictionary.get(code), (byte) code);
+            }
+        }
+
+        /**
+         * Adds a policy
+         * @param policyId Policy ID
+         * @param policyType Policy type; types outside PolicyTypes are appended to the dictionary
+         * @param premium Premium, or NaN if unknown
+         * @param startDate Start date, may be null
+         * @param endDate End date, may be null
+         * @param customerName Customer name
+         * @param customerEmail Customer email
+         * @param status Status
+         * @return Builder
+         */
+        public Builder add(String policyId, String policyType, double premium, LocalDate startDate,
+                           LocalDate endDate, String customerName, String customerEmail, String status) {
+            if (size == policyIds.length) {
+                grow();
+            }
+
+            policyIds[size] = policyId;
+            typeCodes[size] = encodeType(policyType);
+            premiums[size] = premium;
+            startDays[size] = startDate == null ? NO_DATE : (int) startDate.toEpochDay();
+            endDays[size] = endDate == null ? NO_DATE : (int) endDate.toEpochDay();
+            customerNames[size] = customerName;
+            customerEmails[size] = customerEmail;
+            statuses[size] = status;
+            size++;
+            return this;
+        }
+
+        /**
+         * Builds the batch
+         * @return Policy batch
+         */
+        public PolicyBatch build() {
+            return new PolicyBatch(this);
+        }
+
+        private byte encodeType(String policyType) {
+            String key = String.valueOf(policyType);
+            Byte code = typeCodeLookup.get(key);
+
+            if (code == null) {
+                if (typeDictionary.size() > Byte.MAX_VALUE) {
+                    throw new IllegalStateException("Too many distinct policy types: " + typeDictionary.size());
+                }
+                code = (byte) typeDictionary.size();
+                typeDictionary.add(key);
+                typeCodeLookup.put(key, code);
+            }
+            return code;
+        }
+
+        private void grow() {
+            int capacity = policyIds.length * 2;
+            policyIds = Arrays.copyOf(policyIds, capacity);
+            typeCodes = Arrays.copyOf(typeCodes, capacity);
+            premiums = Arrays.copyOf(premiums, capacity);
+            startDays = Arrays.copyOf(startDays, capacity);
+            endDays = Arrays.copyOf(endDays, capacity);
+            customerNames = Arrays.copyOf(customerNames, capacity);
+            customerEmails = Arrays.copyOf(customerEmails, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+    }
+}
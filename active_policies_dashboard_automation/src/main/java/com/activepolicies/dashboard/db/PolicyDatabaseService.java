@@ -1,26 +1,88 @@
 package com.activepolicies.dashboard.db;
 
+import com.activepolicies.dashboard.utils.CacheStats;
+import com.activepolicies.dashboard.utils.ConfigurationManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.sql.Date;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
- * Service for interacting with policy data in the database
+ * Service for interacting with policy data in the database.
+ * With db.cache.enabled=true getPolicyById and getPoliciesByType read through a
+ * PolicyReadCache that createPolicy, createPolicies, updatePolicy and deletePolicy
+ * invalidate. Inside an isolated transaction a thread stops using the cache after
+ * its first write, since its reads then include uncommitted changes.
  */
 public class PolicyDatabaseService {
     private static final Logger logger = LogManager.getLogger(PolicyDatabaseService.class);
+    private static final String INSERT_POLICY_QUERY = 
+            "INSERT INTO policies (policy_type, start_date, end_date, premium, customer_name, customer_email, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    // Policy data keys accepted by updatePolicy and the columns they map to, in SET clause order
+    private static final String[] UPDATABLE_FIELDS = 
+            {"type", "startDate", "endDate", "premium", "customerName", "customerEmail", "status"};
+    private static final String[] UPDATABLE_COLUMNS = 
+            {"policy_type", "start_date", "end_date", "premium", "customer_name", "customer_email", "status"};
+    private static final String[] UPDATE_POLICY_QUERIES = buildUpdateQueries();
+    private static final List<String> POLICY_COLUMNS = Arrays.asList("policy_id", "policy_type", "start_date", 
+            "end_date", "premium", "customer_name", "customer_email", "status");
+    private static final int DEFAULT_VERIFY_CHUNK_SIZE = 500;
     private final DatabaseManager dbManager;
+    private final PolicyReadCache cache;
+    private final boolean bypassCache;
     
     /**
      * Constructor
      * @param dbManager Database manager
      */
     public PolicyDatabaseService(DatabaseManager dbManager) {
+        this(dbManager, PolicyReadCache.getInstance(ConfigurationManager.getInstance()), false);
+    }
+    
+    private PolicyDatabaseService(DatabaseManager dbManager, PolicyReadCache cache, boolean bypassCache) {
         this.dbManager = dbManager;
+        this.cache = cache;
+        this.bypassCache = bypassCache;
+    }
+    
+    /**
+     * Gets a view of this service whose reads always go to the database.
+     * Its writes still invalidate the cache.
+     * @return Cache-bypassing service
+     */
+    public PolicyDatabaseService bypassCache() {
+        return new PolicyDatabaseService(dbManager, cache, true);
+    }
+    
+    /**
+     * Gets read cache hit/miss counters
+     * @return Cache statistics, all zero if the cache is disabled
+     */
+    public CacheStats getCacheStats() {
+        return cache == null ? new CacheStats(0, 0, 0) : cache.getStats();
+    }
+    
+    /**
+     * Checks if reads on the current thread may use the cache
+     * @return true if the cache is enabled, not bypassed and the thread has no uncommitted writes
+     */
+    private boolean useCache() {
+        return cache != null && !bypassCache && !dbManager.hasUncommittedWrites();
     }
     
     /**
@@ -33,13 +95,77 @@ public class PolicyDatabaseService {
         return dbManager.executeQuery(query);
     }
     
+    /**
+     * Streams all policies to the callback without loading the table into memory
+     * @param callback Row callback
+     * @return Number of policies processed
+     * @throws SQLException if query fails
+     */
+    public long forEachPolicy(DatabaseManager.RowCallback callback) throws SQLException {
+        String query = "SELECT * FROM policies";
+        return dbManager.streamQuery(query, null, callback);
+    }
+    
+    /**
+     * Opens a stream over all policies. The stream must be closed after use.
+     * @return Stream of policies
+     * @throws SQLException if query fails
+     */
+    public Stream<ResultRow> streamAllPolicies() throws SQLException {
+        String query = "SELECT * FROM policies";
+        return dbManager.openQueryStream(query, null);
+    }
+    
+    /**
+     * Loads all policies into a typed, column-oriented batch. Values are read with
+     * typed getters straight from the result set, so premiums and dates are never boxed.
+     * @return Policy batch
+     * @throws SQLException if query fails
+     */
+    public PolicyBatch loadPolicyBatch() throws SQLException {
+        String query = "SELECT policy_id, policy_type, start_date, end_date, premium, " +
+                      "customer_name, customer_email, status FROM policies";
+        
+        PolicyBatch.Builder builder = PolicyBatch.builder(1024);
+        
+        dbManager.streamResultSet(query, null, rs -> {
+            double premium = rs.getDouble("premium");
+            if (rs.wasNull()) {
+                premium = Double.NaN;
+            }
+            Date startDate = rs.getDate("start_date");
+            Date endDate = rs.getDate("end_date");
+            
+            builder.add(
+                rs.getString("policy_id"),
+                rs.getString("policy_type"),
+                premium,
+                startDate == null ? null : startDate.toLocalDate(),
+                endDate == null ? null : endDate.toLocalDate(),
+                rs.getString("customer_name"),
+                rs.getString("customer_email"),
+                rs.getString("status"));
+        });
+        
+        PolicyBatch batch = builder.build();
+        logger.info("Loaded {} policies into a columnar batch", batch.size());
+        return batch;
+    }
+    
     /**
      * Gets policy by ID
      * @param policyId Policy ID
-     * @return Policy data
+     * @return Policy data, read-only when the cache is enabled
      * @throws SQLException if query fails
      */
     public Map<String, Object> getPolicyById(String policyId) throws SQLException {
+        if (useCache()) {
+            return cache.getPolicy(policyId, () -> loadPolicyById(policyId));
+        }
+        return loadPolicyById(policyId);
+    }
+    
+    private Map<String, Object> loadPolicyById(String policyId) throws SQLException {
         String query = "SELECT * FROM policies WHERE policy_id = ?";
         List<Object> params = new ArrayList<>();
         params.add(policyId);
@@ -51,10 +177,17 @@ public class PolicyDatabaseService {
     /**
      * Gets policies by type
      * @param policyType Policy type
-     * @return List of policies
+     * @return List of policies, read-only when the cache is enabled
      * @throws SQLException if query fails
      */
     public List<Map<String, Object>> getPoliciesByType(String policyType) throws SQLException {
+        if (useCache()) {
+            return cache.getPoliciesByType(policyType, () -> loadPoliciesByType(policyType));
+        }
+        return loadPoliciesByType(policyType);
+    }
+    
+    private List<Map<String, Object>> loadPoliciesByType(String policyType) throws SQLException {
         String query = "SELECT * FROM policies WHERE policy_type = ?";
         List<Object> params = new ArrayList<>();
         params.add(policyType);
@@ -78,6 +211,43 @@ public class PolicyDatabaseService {
         return dbManager.executeQuery(query, params);
     }
     
+    /**
+     * Pages through all policies in policy_id order using keyset pagination
+     * @param pageSize Policies per page
+     * @return Page iterator; close it if iteration stops early with prefetch enabled
+     */
+    public PolicyPageIterator pageAllPolicies(int pageSize) {
+        return new PolicyPageIterator(dbManager, null, null, pageSize);
+    }
+    
+    /**
+     * Pages through policies of a type in policy_id order using keyset pagination
+     * @param policyType Policy type
+     * @param pageSize Policies per page
+     * @return Page iterator; close it if iteration stops early with prefetch enabled
+     */
+    public PolicyPageIterator pagePoliciesByType(String policyType, int pageSize) {
+        List<Object> params = new ArrayList<>();
+        params.add(policyType);
+        
+        return new PolicyPageIterator(dbManager, "policy_type = ?", params, pageSize);
+    }
+    
+    /**
+     * Pages through policies in a date range in policy_id order using keyset pagination
+     * @param startDate Start date
+     * @param endDate End date
+     * @param pageSize Policies per page
+     * @return Page iterator; close it if iteration stops early with prefetch enabled
+     */
+    public PolicyPageIterator pagePoliciesByDateRange(String startDate, String endDate, int pageSize) {
+        List<Object> params = new ArrayList<>();
+        params.add(startDate);
+        params.add(endDate);
+        
+        return new PolicyPageIterator(dbManager, "start_date >= ? AND end_date <= ?", params, pageSize);
+    }
+    
     /**
      * Creates policy
      * @param policyData Policy data
@@ -85,9 +255,54 @@ public class PolicyDatabaseService {
      * @throws SQLException if query fails
      */
     public String createPolicy(Map<String, Object> policyData) throws SQLException {
-        String query = "INSERT INTO policies (policy_type, start_date, end_date, premium, customer_name, customer_email, status) " +
-                      "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        List<Object> generatedKeys = dbManager.executeInsert(INSERT_POLICY_QUERY, toInsertParams(policyData));
         
+        if (cache != null) {
+            cache.invalidateType(String.valueOf(policyData.get("type")));
+        }
+        return generatedKeys.isEmpty() ? null : generatedKeys.get(0).toString();
+    }
+    
+    /**
+     * Creates policies in JDBC batches using the configured db.batch.size
+     * @param policies Policy data for each policy
+     * @return Generated policy IDs in insertion order and achieved rows per second
+     * @throws SQLException if query fails
+     */
+    public BatchInsertResult createPolicies(Collection<Map<String, Object>> policies) throws SQLException {
+        return createPolicies(policies, dbManager.getBatchSize());
+    }
+    
+    /**
+     * Creates policies in JDBC batches, committing every batchSize rows
+     * @param policies Policy data for each policy
+     * @param batchSize Rows per batch and transaction
+     * @return Generated policy IDs in insertion order and achieved rows per second
+     * @throws SQLException if query fails
+     */
+    public BatchInsertResult createPolicies(Collection<Map<String, Object>> policies, int batchSize) throws SQLException {
+        List<List<Object>> paramRows = new ArrayList<>(policies.size());
+        for (Map<String, Object> policyData : policies) {
+            paramRows.add(toInsertParams(policyData));
+        }
+        
+        BatchInsertResult result = dbManager.executeBatchInsert(INSERT_POLICY_QUERY, paramRows, batchSize);
+        
+        if (cache != null) {
+            for (Map<String, Object> policyData : policies) {
+                cache.invalidateType(String.valueOf(policyData.get("type")));
+            }
+        }
+        logger.info("Created {} policies at {} rows/s", result.getRowCount(), Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+    
+    /**
+     * Maps policy data to INSERT_POLICY_QUERY parameters
+     * @param policyData Policy data
+     * @return Query parameters
+     */
+    private List<Object> toInsertParams(Map<String, Object> policyData) {
         List<Object> params = new ArrayList<>();
         params.add(policyData.get("type"));
         params.add(policyData.get("startDate"));
@@ -96,9 +311,7 @@ public class PolicyDatabaseService {
         params.add(policyData.get("customerName"));
         params.add(policyData.get("customerEmail"));
         params.add(policyData.get("status"));
-        
-        List<Object> generatedKeys = dbManager.executeInsert(query, params);
-        return generatedKeys.isEmpty() ? null : generatedKeys.get(0).toString();
+        return params;
     }
     
     /**
@@ -109,62 +322,52 @@ public class PolicyDatabaseService {
      * @throws SQLException if query fails
      */
     public int updatePolicy(String policyId, Map<String, Object> policyData) throws SQLException {
-        StringBuilder queryBuilder = new StringBuilder("UPDATE policies SET ");
         List<Object> params = new ArrayList<>();
+        int columnMask = 0;
         
-        boolean firstParam = true;
-        
-        if (policyData.containsKey("type")) {
-            queryBuilder.append("policy_type = ?");
-            params.add(policyData.get("type"));
-            firstParam = false;
-        }
-        
-        if (policyData.containsKey("startDate")) {
-            if (!firstParam) queryBuilder.append(", ");
-            queryBuilder.append("start_date = ?");
-            params.add(policyData.get("startDate"));
-            firstParam = false;
-        }
-        
-        if (policyData.containsKey("endDate")) {
-            if (!firstParam) queryBuilder.append(", ");
-            queryBuilder.append("end_date = ?");
-            params.add(policyData.get("endDate"));
-            firstParam = false;
-        }
-        
-        if (policyData.containsKey("premium")) {
-            if (!firstParam) queryBuilder.append(", ");
-            queryBuilder.append("premium = ?");
-            params.add(policyData.get("premium"));
-            firstParam = false;
+        for (int i = 0; i < UPDATABLE_FIELDS.length; i++) {
+            if (policyData.containsKey(UPDATABLE_FIELDS[i])) {
+                columnMask |= 1 << i;
+                params.add(policyData.get(UPDATABLE_FIELDS[i]));
+            }
         }
+        params.add(policyId);
         
-        if (policyData.containsKey("customerName")) {
-            if (!firstParam) queryBuilder.append(", ");
-            queryBuilder.append("customer_name = ?");
-            params.add(policyData.get("customerName"));
-            firstParam = false;
-        }
+        int rowsAffected = dbManager.executeUpdate(UPDATE_POLICY_QUERIES[columnMask], params);
         
-        if (policyData.containsKey("customerEmail")) {
-            if (!firstParam) queryBuilder.append(", ");
-            queryBuilder.append("customer_email = ?");
-            params.add(policyData.get("customerEmail"));
-            firstParam = false;
+        if (cache != null) {
+            cache.invalidatePolicy(policyId);
+            if (policyData.containsKey("type")) {
+                cache.invalidateType(String.valueOf(policyData.get("type")));
+            }
         }
+        return rowsAffected;
+    }
+    
+    /**
+     * Builds the UPDATE statement for every combination of updatable columns, indexed by
+     * column bitmask, so each shape has one canonical SQL text for the statement cache
+     * @return UPDATE queries by column mask
+     */
+    private static String[] buildUpdateQueries() {
+        String[] queries = new String[1 << UPDATABLE_COLUMNS.length];
         
-        if (policyData.containsKey("status")) {
-            if (!firstParam) queryBuilder.append(", ");
-            queryBuilder.append("status = ?");
-            params.add(policyData.get("status"));
+        for (int mask = 0; mask < queries.length; mask++) {
+            StringBuilder queryBuilder = new StringBuilder("UPDATE policies SET ");
+            boolean firstParam = true;
+            
+            for (int i = 0; i < UPDATABLE_COLUMNS.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    if (!firstParam) queryBuilder.append(", ");
+                    queryBuilder.append(UPDATABLE_COLUMNS[i]).append(" = ?");
+                    firstParam = false;
+                }
+            }
+            
+            queryBuilder.append(" WHERE policy_id = ?");
+            queries[mask] = queryBuilder.toString();
         }
-        
-        queryBuilder.append(" WHERE policy_id = ?");
-        params.add(policyId);
-        
-        return dbManager.executeUpdate(queryBuilder.toString(), params);
+        return queries;
     }
     
     /**
@@ -178,11 +381,51 @@ public class PolicyDatabaseService {
         List<Object> params = new ArrayList<>();
         params.add(policyId);
         
-        return dbManager.executeUpdate(query, params);
+        int rowsAffected = dbManager.executeUpdate(query, params);
+        
+        if (cache != null) {
+            cache.invalidatePolicy(policyId);
+        }
+        return rowsAffected;
+    }
+    
+    /**
+     * Gets count, premium sum, average, min and max for every policy type and the
+     * grand total in a single GROUP BY policy_type pass over the table
+     * @return Policy statistics snapshot
+     * @throws SQLException if query fails
+     */
+    public PolicyStatistics getPolicyStatisticsByType() throws SQLException {
+        String query = "SELECT policy_type, " +
+                      "COUNT(*) AS policy_count, " +
+                      "COUNT(premium) AS premium_count, " +
+                      "SUM(premium) AS total_premium, " +
+                      "MIN(premium) AS min_premium, " +
+                      "MAX(premium) AS max_premium " +
+                      "FROM policies GROUP BY policy_type";
+        
+        Map<String, PolicyStatistics.TypeStatistics> byType = new LinkedHashMap<>();
+        
+        for (ResultRow row : dbManager.executeCompactQuery(query, null)) {
+            String policyType = row.getString("policy_type");
+            Object minPremium = row.get("min_premium");
+            Object maxPremium = row.get("max_premium");
+            
+            byType.put(policyType, new PolicyStatistics.TypeStatistics(
+                policyType,
+                row.getLong("policy_count"),
+                row.getLong("premium_count"),
+                row.getDouble("total_premium"),
+                minPremium == null ? Double.NaN : ((Number) minPremium).doubleValue(),
+                maxPremium == null ? Double.NaN : ((Number) maxPremium).doubleValue()));
+        }
+        
+        return new PolicyStatistics(byType);
     }
     
     /**
-     * Gets policy count
+     * Gets policy count. To check several aggregates at once, take one
+     * getPolicyStatisticsByType snapshot instead of calling the single-value methods.
      * @return Policy count
      * @throws SQLException if query fails
      */
@@ -214,7 +457,7 @@ public class PolicyDatabaseService {
         String query = "SELECT SUM(premium) AS total FROM policies";
         
         List<Map<String, Object>> results = dbManager.executeQuery(query);
-        return results.isEmpty() ? 0 : ((Number) results.get(0).get("total")).doubleValue();
+        return results.isEmpty() || results.get(0).get("total") == null ? 0 : ((Number) results.get(0).get("total")).doubleValue();
     }
     
     /**
@@ -226,7 +469,7 @@ public class PolicyDatabaseService {
         String query = "SELECT AVG(premium) AS average FROM policies";
         
         List<Map<String, Object>> results = dbManager.executeQuery(query);
-        return results.isEmpty() ? 0 : ((Number) results.get(0).get("average")).doubleValue();
+        return results.isEmpty() || results.get(0).get("average") == null ? 0 : ((Number) results.get(0).get("average")).doubleValue();
     }
     
     /**
@@ -245,6 +488,109 @@ public class PolicyDatabaseService {
         return results.isEmpty() ? null : results.get(0);
     }
     
+    /**
+     * Gets an order-independent fingerprint of every policy column, for skipping
+     * verification when nothing changed since the last verified run
+     * @return Fingerprint of the policies table
+     * @throws SQLException if query fails
+     */
+    public TableFingerprint getPoliciesFingerprint() throws SQLException {
+        return dbManager.fingerprintTable("policies", POLICY_COLUMNS);
+    }
+    
+    /**
+     * Gets an order-independent fingerprint of the policies of one type
+     * @param policyType Policy type
+     * @return Fingerprint of the policies of the type
+     * @throws SQLException if query fails
+     */
+    public TableFingerprint getPoliciesFingerprintByType(String policyType) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        params.add(policyType);
+        
+        return dbManager.fingerprintTable("policies", POLICY_COLUMNS, "policy_type = ?", params);
+    }
+    
+    /**
+     * Finds policies added, changed or deleted since the row hashes in the store were
+     * last committed, by streaming (policy_id, row hash) in policy_id order and
+     * merge-joining it with the store. Verify getIdsToVerify, then commit the change set.
+     * Memory use and verification work grow with the number of changes, not the table size.
+     * @param store Row hashes recorded by the last successful verification
+     * @return Change set holding the new row hashes until committed
+     * @throws SQLException if query fails
+     * @throws IOException if the store cannot be read or the new hashes cannot be written
+     */
+    public RowChangeSet detectPolicyChanges(RowHashStore store) throws SQLException, IOException {
+        String hashExpression = dbManager.getDialect().rowHashExpression(POLICY_COLUMNS);
+        String query = hashExpression != null
+                ? "SELECT policy_id, " + hashExpression + " AS row_hash FROM policies ORDER BY policy_id"
+                : "SELECT " + String.join(", ", POLICY_COLUMNS) + " FROM policies ORDER BY policy_id";
+        
+        List<Long> addedIds = new ArrayList<>();
+        List<Long> changedIds = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        long[] unchangedCount = new long[1];
+        String[] values = new String[POLICY_COLUMNS.size()];
+        boolean complete = false;
+        
+        RowHashStore.Writer writer = store.openWriter();
+        try (RowHashStore.Reader stored = store.openReader()) {
+            boolean[] hasStored = {stored.next()};
+            
+            dbManager.streamResultSet(query, null, rs -> {
+                long policyId = rs.getLong(1);
+                long hash;
+                if (hashExpression != null) {
+                    hash = TableFingerprint.toHash(rs.getObject(2));
+                } else {
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = rs.getString(i + 1);
+                    }
+                    hash = TableFingerprint.rowHash(values);
+                }
+                
+                try {
+                    while (hasStored[0] && stored.getId() < policyId) {
+                        deletedIds.add(stored.getId());
+                        hasStored[0] = stored.next();
+                    }
+                    if (hasStored[0] && stored.getId() == policyId) {
+                        if (stored.getHash() == hash) {
+                            unchangedCount[0]++;
+                        } else {
+                            changedIds.add(policyId);
+                        }
+                        hasStored[0] = stored.next();
+                    } else {
+                        addedIds.add(policyId);
+                    }
+                    writer.write(policyId, hash);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            
+            while (hasStored[0]) {
+                deletedIds.add(stored.getId());
+                hasStored[0] = stored.next();
+            }
+            complete = true;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            writer.close();
+            if (!complete) {
+                Files.deleteIfExists(writer.getTempFile());
+            }
+        }
+        
+        RowChangeSet changes = new RowChangeSet(store, writer.getTempFile(), addedIds, changedIds, deletedIds, 
+                unchangedCount[0]);
+        logger.info("Policy changes since last verification: {}", changes);
+        return changes;
+    }
+    
     /**
      * Verifies policy data in database matches UI
      * @param policyId Policy ID
@@ -260,12 +606,98 @@ public class PolicyDatabaseService {
             return false;
         }
         
-        // Compare key fields
-        boolean matches = true;
+        List<PolicyVerificationReport.Mismatch> mismatches = comparePolicyData(policyId, dbData, uiData);
+        for (PolicyVerificationReport.Mismatch mismatch : mismatches) {
+            logger.warn("Policy data mismatch: {}", mismatch);
+        }
+        
+        return mismatches.isEmpty();
+    }
+    
+    /**
+     * Verifies many UI policy records against the database using DEFAULT_VERIFY_CHUNK_SIZE
+     * @param uiPolicies UI data by policy ID
+     * @return Verification report
+     * @throws SQLException if query fails
+     */
+    public PolicyVerificationReport verifyPolicies(Map<String, Map<String, Object>> uiPolicies) throws SQLException {
+        return verifyPolicies(uiPolicies, DEFAULT_VERIFY_CHUNK_SIZE);
+    }
+    
+    /**
+     * Verifies many UI policy records against the database. Policies are fetched in
+     * chunks with one IN (...) query each and compared in memory. Every chunk uses the
+     * same number of placeholders, padding with the last ID, so all chunks share one
+     * prepared statement.
+     * @param uiPolicies UI data by policy ID
+     * @param chunkSize Policy IDs per query
+     * @return Verification report
+     * @throws SQLException if query fails
+     */
+    public PolicyVerificationReport verifyPolicies(Map<String, Map<String, Object>> uiPolicies, int chunkSize) 
+            throws SQLException {
+        PolicyVerificationReport report = new PolicyVerificationReport();
+        List<String> policyIds = new ArrayList<>(uiPolicies.keySet());
+        int effectiveChunkSize = Math.max(1, Math.min(chunkSize, policyIds.size()));
+        String query = buildInQuery(effectiveChunkSize);
+        
+        for (int from = 0; from < policyIds.size(); from += effectiveChunkSize) {
+            List<String> chunk = policyIds.subList(from, Math.min(from + effectiveChunkSize, policyIds.size()));
+            List<Object> params = new ArrayList<>(chunk);
+            while (params.size() < effectiveChunkSize) {
+                params.add(chunk.get(chunk.size() - 1));
+            }
+            
+            Map<String, Map<String, Object>> dbPolicies = new HashMap<>();
+            for (ResultRow row : dbManager.executeCompactQuery(query, params)) {
+                dbPolicies.put(row.getString("policy_id"), row.toMap());
+            }
+            report.incrementQueries();
+            
+            for (String policyId : chunk) {
+                Map<String, Object> dbData = dbPolicies.get(policyId);
+                report.incrementVerified();
+                
+                if (dbData == null) {
+                    report.addMissing(policyId);
+                    continue;
+                }
+                for (PolicyVerificationReport.Mismatch mismatch : comparePolicyData(policyId, dbData, uiPolicies.get(policyId))) {
+                    report.addMismatch(mismatch);
+                }
+            }
+        }
+        
+        logger.info("Verified policies against database: {}", report);
+        return report;
+    }
+    
+    /**
+     * Builds a SELECT for a fixed number of policy IDs
+     * @param idCount Number of IN placeholders
+     * @return Query
+     */
+    private static String buildInQuery(int idCount) {
+        StringBuilder queryBuilder = new StringBuilder("SELECT * FROM policies WHERE policy_id IN (");
+        for (int i = 0; i < idCount; i++) {
+            queryBuilder.append(i == 0 ? "?" : ", ?");
+        }
+        return queryBuilder.append(")").toString();
+    }
+    
+    /**
+     * Compares the key fields present in the UI data with a database row
+     * @param policyId Policy ID
+     * @param dbData Database row
+     * @param uiData UI data
+     * @return Mismatched fields, empty if all compared fields match
+     */
+    private List<PolicyVerificationReport.Mismatch> comparePolicyData(String policyId, Map<String, Object> dbData, 
+                                                                      Map<String, Object> uiData) {
+        List<PolicyVerificationReport.Mismatch> mismatches = new ArrayList<>();
         
-        if (uiData.containsKey("type") && !dbData.get("policy_type").equals(uiData.get("type"))) {
-            logger.warn("Policy type mismatch: {} vs {}", dbData.get("policy_type"), uiData.get("type"));
-            matches = false;
+        if (uiData.containsKey("type") && !Objects.equals(dbData.get("policy_type"), uiData.get("type"))) {
+            mismatches.add(new PolicyVerificationReport.Mismatch(policyId, "type", dbData.get("policy_type"), uiData.get("type")));
         }
         
         if (uiData.containsKey("premium")) {
@@ -273,21 +705,19 @@ public class PolicyDatabaseService {
             double uiPremium = Double.parseDouble(uiData.get("premium").toString());
             
             if (Math.abs(dbPremium - uiPremium) > 0.01) {
-                logger.warn("Premium mismatch: {} vs {}", dbPremium, uiPremium);
-                matches = false;
+                mismatches.add(new PolicyVerificationReport.Mismatch(policyId, "premium", dbPremium, uiPremium));
             }
         }
         
-        if (uiData.containsKey("customerName") && !dbData.get("customer_name").equals(uiData.get("customerName"))) {
-            logger.warn("Customer name mismatch: {} vs {}", dbData.get("customer_name"), uiData.get("customerName"));
-            matches = false;
+        if (uiData.containsKey("customerName") && !Objects.equals(dbData.get("customer_name"), uiData.get("customerName"))) {
+            mismatches.add(new PolicyVerificationReport.Mismatch(policyId, "customerName", 
+                dbData.get("customer_name"), uiData.get("customerName")));
         }
         
-        if (uiData.containsKey("status") && !dbData.get("status").equals(uiData.get("status"))) {
-            logger.warn("Status mismatch: {} vs {}", dbData.get("status"), uiData.get("status"));
-            matches = false;
+        if (uiData.containsKey("status") && !Objects.equals(dbData.get("status"), uiData.get("status"))) {
+            mismatches.add(new PolicyVerificationReport.Mismatch(policyId, "status", dbData.get("status"), uiData.get("status")));
         }
         
-        return matches;
+        return mismatches;
     }
 }
@@ -0,0 +1,216 @@
+package com.activepolicies.dashboard.db;
+
+import com.activepolicies.dashboard.utils.TaskExecutors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Walks the policies table in fixed-size pages using keyset (seek) pagination:
+ * each page is fetched with policy_id greater than the last ID of the previous
+ * page, ordered by policy_id, so every page costs an index range scan no matter
+ * how deep into the table it is.
+ *
+ * Optionally the next page is prefetched on a background thread while the caller
+ * processes the current one. If a page fails to load, the exception is thrown from
+ * hasNext or next and getLastPolicyId still points at the last page returned, so
+ * iteration can be retried on the same iterator or resumed with startAfter on a new one.
+ */
+public class PolicyPageIterator implements Iterator<List<Map<String, Object>>>, AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(PolicyPageIterator.class);
+
+    private final DatabaseManager dbManager;
+    private final String query;
+    private final List<Object> filterParams;
+    private final int pageSize;
+    private long lastPolicyId = Long.MIN_VALUE;
+    private boolean prefetch;
+    private boolean started;
+    private boolean lastPageFetched;
+    private List<Map<String, Object>> nextPage;
+    private Future<List<Map<String, Object>>> pendingPage;
+    private ExecutorService prefetchExecutor;
+    private int pagesReturned;
+
+    /**
+     * Constructor
+     * @param dbManager Database manager
+     * @param filter SQL condition ANDed with the keyset condition, or null for the whole table
+     * @param filterParams Parameters of the filter condition
+     * @param pageSize Policies per page
+     */
+    public PolicyPageIterator(DatabaseManager dbManager, String filter, List<Object> filterParams, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+
+        this.dbManager = dbManager;
+        this.query = "SELECT * FROM policies WHERE policy_id > ?" +
+                (filter == null ? "" : " AND " + filter) +
+                " ORDER BY policy_id LIMIT ?";
+        this.filterParams = filterParams == null ? new ArrayList<>() : new ArrayList<>(filterParams);
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Starts iteration after a policy ID, e.g. the getLastPolicyId of an iterator that failed
+     * @param policyId Last policy ID already processed
+     * @return This iterator
+     */
+    public PolicyPageIterator startAfter(long policyId) {
+        checkNotStarted();
+        this.lastPolicyId = policyId;
+        return this;
+    }
+
+    /**
+     * Enables fetching the next page in the background. Only takes effect in pooled mode
+     * outside an isolated transaction; otherwise the background query could not use its
+     * own connection or would not see the caller's uncommitted changes.
+     * @param prefetch Whether to prefetch
+     * @return This iterator
+     */
+    public PolicyPageIterator prefetch(boolean prefetch) {
+        checkNotStarted();
+        this.prefetch = prefetch;
+        return this;
+    }
+
+    /**
+     * Gets the ID of the last policy on the last page returned by next
+     * @return Last policy ID, or Long.MIN_VALUE if no page has been returned
+     */
+    public long getLastPolicyId() {
+        return lastPolicyId;
+    }
+
+    public int getPagesReturned() {
+        return pagesReturned;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextPage != null) {
+            return true;
+        }
+        if (lastPageFetched && pendingPage == null) {
+            close();
+            return false;
+        }
+
+        if (!started) {
+            started = true;
+            prefetch = prefetch && dbManager.isPooled() && !dbManager.isInIsolatedTransaction();
+        }
+
+        List<Map<String, Object>> page = pendingPage != null ? awaitPendingPage() : fetchPage(lastPolicyId);
+
+        if (page.size() < pageSize) {
+            lastPageFetched = true;
+        } else if (prefetch) {
+            long afterId = policyIdOf(page.get(page.size() - 1));
+            pendingPage = executor().submit(() -> fetchPage(afterId));
+        }
+
+        if (page.isEmpty()) {
+            close();
+            return false;
+        }
+        nextPage = page;
+        return true;
+    }
+
+    @Override
+    public List<Map<String, Object>> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more policy pages after ID " + lastPolicyId);
+        }
+
+        List<Map<String, Object>> page = nextPage;
+        nextPage = null;
+        lastPolicyId = policyIdOf(page.get(page.size() - 1));
+        pagesReturned++;
+        return page;
+    }
+
+    /**
+     * Cancels any prefetch in progress and stops the prefetch thread
+     */
+    @Override
+    public void close() {
+        if (pendingPage != null) {
+            pendingPage.cancel(true);
+            pendingPage = null;
+        }
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+            prefetchExecutor = null;
+        }
+    }
+
+    /**
+     * Fetches the page following a policy ID
+     * @param afterPolicyId Policy ID to seek past
+     * @return Page of policies, empty at the end of the table
+     */
+    private List<Map<String, Object>> fetchPage(long afterPolicyId) {
+        List<Object> params = new ArrayList<>(filterParams.size() + 2);
+        params.add(afterPolicyId);
+        params.addAll(filterParams);
+        params.add(pageSize);
+
+        try {
+            return dbManager.executeQuery(query, params);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to fetch policy page after ID " + afterPolicyId, e);
+        }
+    }
+
+    /**
+     * Waits for the prefetched page. On failure the prefetch is discarded, so the
+     * next call to hasNext fetches the same page again synchronously.
+     * @return Prefetched page
+     */
+    private List<Map<String, Object>> awaitPendingPage() {
+        Future<List<Map<String, Object>>> page = pendingPage;
+        pendingPage = null;
+
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while prefetching policy page after ID " + lastPolicyId, e);
+        } catch (ExecutionException e) {
+            logger.error("Failed to prefetch policy page after ID {}", lastPolicyId, e.getCause());
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : new RuntimeException("Failed to prefetch policy page after ID " + lastPolicyId, e.getCause());
+        }
+    }
+
+    private ExecutorService executor() {
+        if (prefetchExecutor == null) {
+            prefetchExecutor = TaskExecutors.newExecutor("policy-page-prefetch", 1);
+        }
+        return prefetchExecutor;
+    }
+
+    private void checkNotStarted() {
+        if (started) {
+            throw new IllegalStateException("Iteration has already started");
+        }
+    }
+
+    private static long policyIdOf(Map<String, Object> policy) {
+        return ((Number) policy.get("policy_id")).longValue();
+    }
+}
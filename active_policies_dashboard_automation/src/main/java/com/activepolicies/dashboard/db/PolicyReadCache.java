@@ -0,0 +1,257 @@
+package com.activepolicies.dashboard.db;
+
+import com.activepolicies.dashboard.utils.CacheStats;
+import com.activepolicies.dashboard.utils.ConfigurationManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache of policies by ID and policy lists by type, shared by every
+ * PolicyDatabaseService on the same database. Entries are evicted least recently
+ * used beyond db.cache.max.entries and expire after db.cache.ttl.seconds.
+ *
+ * Writes invalidate precisely: the policy's own entry, the list of its new type and
+ * every cached type list that contains it. A load that overlaps an invalidation of
+ * its key, or of a policy it returned, is handed to its caller but not cached, so a
+ * concurrent write cannot leave a stale entry behind. Cached policies and lists are read-only.
+ */
+public class PolicyReadCache {
+    private static final Logger logger = LogManager.getLogger(PolicyReadCache.class);
+    private static final Map<String, PolicyReadCache> caches = new ConcurrentHashMap<>();
+    private static final String POLICY_KEY = "policy:";
+    private static final String TYPE_KEY = "type:";
+
+    private final long ttlNanos;
+    private final Map<String, CachedValue> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // Loads in progress, told about invalidations that overlap them; guarded by this
+    private final Set<PendingLoad> pendingLoads = new HashSet<>();
+
+    private PolicyReadCache(int maxEntries, long ttlSeconds) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<String, CachedValue>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedValue> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the shared cache for the configured database, creating it on first use
+     * @param config Configuration manager
+     * @return Policy cache, or null if db.cache.enabled is not set
+     */
+    public static PolicyReadCache getInstance(ConfigurationManager config) {
+        if (!Boolean.parseBoolean(config.getProperty("db.cache.enabled", "false"))) {
+            return null;
+        }
+
+        String key = config.getProperty("db.url") + "|" + config.getProperty("db.username");
+        return caches.computeIfAbsent(key, k -> {
+            int maxEntries = Integer.parseInt(config.getProperty("db.cache.max.entries", "1000"));
+            long ttlSeconds = Long.parseLong(config.getProperty("db.cache.ttl.seconds", "60"));
+            logger.info("Creating policy read cache (max entries: {}, TTL: {} s)", maxEntries, ttlSeconds);
+            return new PolicyReadCache(maxEntries, ttlSeconds);
+        });
+    }
+
+    /**
+     * Clears every cache, e.g. after the table was rewritten outside PolicyDatabaseService
+     */
+    public static void clearAll() {
+        for (PolicyReadCache cache : caches.values()) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Gets a policy, loading it on a miss. Missing policies are not cached.
+     * @param policyId Policy ID
+     * @param loader Loads the policy from the database
+     * @return Policy data, or null if not found
+     * @throws SQLException if the load fails
+     */
+    public Map<String, Object> getPolicy(String policyId, DatabaseManager.QueryTask<Map<String, Object>> loader)
+            throws SQLException {
+        Object value = getOrLoad(POLICY_KEY + policyId, () -> {
+            Map<String, Object> policy = loader.call();
+            return policy == null ? null : Collections.unmodifiableMap(policy);
+        }, null);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> policy = (Map<String, Object>) value;
+        return policy;
+    }
+
+    /**
+     * Gets the policies of a type, loading them on a miss
+     * @param policyType Policy type
+     * @param loader Loads the policies from the database
+     * @return Read-only list of policies
+     * @throws SQLException if the load fails
+     */
+    public List<Map<String, Object>> getPoliciesByType(String policyType,
+            DatabaseManager.QueryTask<List<Map<String, Object>>> loader) throws SQLException {
+        Set<String> policyIds = new HashSet<>();
+        Object value = getOrLoad(TYPE_KEY + policyType, () -> {
+            List<Map<String, Object>> policies = new ArrayList<>();
+            for (Map<String, Object> policy : loader.call()) {
+                policyIds.add(String.valueOf(policy.get("policy_id")));
+                policies.add(Collections.unmodifiableMap(policy));
+            }
+            return Collections.unmodifiableList(policies);
+        }, policyIds);
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> policies = (List<Map<String, Object>>) value;
+        return policies;
+    }
+
+    /**
+     * Invalidates a policy and every cached type list that contains it
+     * @param policyId Policy ID
+     */
+    public synchronized void invalidatePolicy(String policyId) {
+        String key = POLICY_KEY + policyId;
+        remove(key);
+        for (PendingLoad load : pendingLoads) {
+            if (load.key.equals(key)) {
+                load.stale = true;
+            }
+            load.invalidatedPolicyIds.add(policyId);
+        }
+
+        Iterator<Map.Entry<String, CachedValue>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Set<String> members = iterator.next().getValue().policyIds;
+            if (members != null && members.contains(policyId)) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Invalidates the cached list of a policy type
+     * @param policyType Policy type
+     */
+    public synchronized void invalidateType(String policyType) {
+        String key = TYPE_KEY + policyType;
+        remove(key);
+        for (PendingLoad load : pendingLoads) {
+            if (load.key.equals(key)) {
+                load.stale = true;
+            }
+        }
+    }
+
+    /**
+     * Removes every entry
+     */
+    public synchronized void clear() {
+        for (PendingLoad load : pendingLoads) {
+            load.stale = true;
+        }
+        evictions.add(entries.size());
+        entries.clear();
+    }
+
+    /**
+     * Gets hit/miss counters; evictions include expired and invalidated entries
+     * @return Cache statistics
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Returns the cached value for a key, or loads it outside the lock and caches it
+     * unless an invalidation of the key, or of a policy in the loaded list, happened meanwhile
+     */
+    private Object getOrLoad(String key, DatabaseManager.QueryTask<Object> loader, Set<String> policyIds)
+            throws SQLException {
+        PendingLoad load = new PendingLoad(key);
+
+        synchronized (this) {
+            CachedValue entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.expiresAt < 0) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                remove(key);
+            }
+            pendingLoads.add(load);
+        }
+
+        misses.increment();
+        Object value = null;
+
+        try {
+            value = loader.call();
+        } finally {
+            synchronized (this) {
+                pendingLoads.remove(load);
+                if (value != null && !load.stale
+                        && (policyIds == null || Collections.disjoint(policyIds, load.invalidatedPolicyIds))) {
+                    entries.put(key, new CachedValue(value, policyIds, System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    private void remove(String key) {
+        if (entries.remove(key) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Load in progress and the invalidations that happened during it
+     */
+    private static class PendingLoad {
+        private final String key;
+        private final Set<String> invalidatedPolicyIds = new HashSet<>();
+        private boolean stale;
+
+        PendingLoad(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Cached value with its expiry time and, for type lists, the policy IDs it contains
+     */
+    private static class CachedValue {
+        private final Object value;
+        private final Set<String> policyIds;
+        private final long expiresAt;
+
+        CachedValue(Object value, Set<String> policyIds, long expiresAt) {
+            this.value = value;
+            this.policyIds = policyIds;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,583 @@
+package com.activepolicies.dashboard.db;
+
+import com.activepolicies.dashboard.constants.PolicyTypes;
+import com.activepolicies.dashboard.utils.LatencyHistogram;
+import com.activepolicies.dashboard.utils.PolicyDataGenerator;
+import com.activepolicies.dashboard.utils.TaskExecutors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Soak test of the policies table under concurrent dashboard reads and back-office
+ * writes. Worker threads run a weighted mix of PolicyDatabaseService operations
+ * for a fixed duration, and the report gives throughput, latency percentiles and
+ * failures per operation, with deadlocks and lock wait timeouts counted separately.
+ *
+ * The harness runs against whatever database DatabaseManager is configured for:
+ * MySQL in the shared environments, the embedded H2 database with env=local.
+ * Reads bypass PolicyReadCache; writes still invalidate it.
+ * Updates and deletes only touch policies the harness created itself, and policies
+ * left at the end are deleted. With rollback enabled each worker instead runs in
+ * its own isolated transaction that is rolled back when the soak ends, so nothing
+ * is committed; workers then only write their own policies and do not contend
+ * with each other on rows.
+ */
+public class PolicySoakHarness {
+    private static final Logger logger = LogManager.getLogger(PolicySoakHarness.class);
+    private static final int POLICY_DATA_CHUNK_SIZE = 100;
+    private static final String[] UPDATE_STATUSES = {"Active", "Expired", "Cancelled"};
+
+    private final DatabaseManager dbManager;
+    private final PolicyDatabaseService policyDbService;
+    private final int threads;
+    private final Duration duration;
+    private final Operation[] operations;
+    private final double[] cumulativeWeights;
+    private final long seed;
+    private final boolean rollback;
+    private final int dateRangeDays;
+    private final PolicyDataGenerator generator;
+    private final AtomicLong nextPolicyDataChunk = new AtomicLong();
+
+    private PolicySoakHarness(Builder builder) {
+        this.dbManager = builder.dbManager;
+        // Reads go to the database even when db.cache.enabled is set, or the soak would measure cache hits
+        this.policyDbService = new PolicyDatabaseService(builder.dbManager).bypassCache();
+        this.threads = builder.dbManager.isPooled() ? builder.threads : 1;
+        this.duration = builder.duration;
+        this.seed = builder.seed;
+        this.rollback = builder.rollback;
+        this.dateRangeDays = builder.dateRangeDays;
+        this.generator = PolicyDataGenerator.builder().seed(builder.seed).threads(1).build();
+
+        List<Operation> mixOperations = new ArrayList<>();
+        List<Double> mixWeights = new ArrayList<>();
+        for (Map.Entry<Operation, Double> entry : builder.weights.entrySet()) {
+            if (entry.getValue() > 0) {
+                mixOperations.add(entry.getKey());
+                mixWeights.add(entry.getValue());
+            }
+        }
+        if (mixOperations.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix has no operation with a positive weight");
+        }
+
+        this.operations = mixOperations.toArray(new Operation[0]);
+        this.cumulativeWeights = new double[operations.length];
+        double total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mixWeights.get(i);
+            cumulativeWeights[i] = total;
+        }
+
+        if (threads < builder.threads) {
+            logger.warn("Connection pooling is disabled, soak runs on a single thread instead of {}", builder.threads);
+        }
+    }
+
+    /**
+     * Creates a harness builder with a read-heavy dashboard mix
+     * @param dbManager Database manager to soak
+     * @return Builder
+     */
+    public static Builder builder(DatabaseManager dbManager) {
+        return new Builder(dbManager);
+    }
+
+    /**
+     * Runs the soak for the configured duration
+     * @return Soak report
+     * @throws SQLException if a worker cannot start its transaction
+     */
+    public SoakReport run() throws SQLException {
+        SoakReport report = new SoakReport(threads);
+        PolicyIdPool sharedPolicyIds = new PolicyIdPool();
+        List<Deque<Map<String, Object>>> policyData = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            policyData.add(new ArrayDeque<>(nextPolicyDataChunk()));
+        }
+
+        logger.info("Starting policy soak: {} threads for {} s, mix {}", threads, duration.getSeconds(), describeMix());
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = TaskExecutors.newExecutor("policy-soak", threads);
+        List<Future<?>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                Random random = new Random(seed + i);
+                PolicyIdPool policyIds = rollback ? new PolicyIdPool() : sharedPolicyIds;
+                Deque<Map<String, Object>> workerPolicyData = policyData.get(i);
+                workers.add(executor.submit(() -> {
+                    runWorker(random, policyIds, workerPolicyData, deadline, report);
+                    return null;
+                }));
+            }
+
+            for (Future<?> worker : workers) {
+                awaitWorker(worker);
+            }
+        } finally {
+            for (Future<?> worker : workers) {
+                worker.cancel(true);
+            }
+            executor.shutdownNow();
+            report.elapsedNanos = System.nanoTime() - start;
+
+            if (!rollback) {
+                deleteRemaining(sharedPolicyIds);
+            }
+        }
+
+        logger.info("Policy soak finished:\n{}", report.formatSummary());
+        return report;
+    }
+
+    /**
+     * Runs operations until the deadline, inside an isolated transaction when rollback is enabled
+     */
+    private void runWorker(Random random, PolicyIdPool policyIds, Deque<Map<String, Object>> policyData,
+            long deadline, SoakReport report) throws SQLException {
+        if (rollback) {
+            dbManager.beginIsolatedTransaction();
+        }
+
+        try {
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                Operation operation = pickOperation(random, policyIds);
+                if (policyData.isEmpty()) {
+                    // Generate outside the timed section so creates measure only the insert
+                    policyData.addAll(nextPolicyDataChunk());
+                }
+                long start = System.nanoTime();
+
+                try {
+                    runOperation(operation, random, policyIds, policyData);
+                    report.record(operation, System.nanoTime() - start, null);
+                } catch (SQLException e) {
+                    report.record(operation, System.nanoTime() - start, e);
+                }
+            }
+        } finally {
+            if (rollback) {
+                dbManager.rollbackIsolatedTransaction();
+            }
+        }
+    }
+
+    /**
+     * Picks the next operation from the mix. Updates and deletes fall back to a
+     * create while the worker has no policies to write to.
+     */
+    private Operation pickOperation(Random random, PolicyIdPool policyIds) {
+        double value = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        Operation operation = operations[operations.length - 1];
+
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                operation = operations[i];
+                break;
+            }
+        }
+
+        if ((operation == Operation.UPDATE || operation == Operation.DELETE) && policyIds.isEmpty()) {
+            return Operation.CREATE;
+        }
+        return operation;
+    }
+
+    private void runOperation(Operation operation, Random random, PolicyIdPool policyIds,
+            Deque<Map<String, Object>> policyData) throws SQLException {
+        switch (operation) {
+            case READ_BY_TYPE:
+                policyDbService.getPoliciesByType(PolicyTypes.TYPES.get(random.nextInt(PolicyTypes.TYPES.size())));
+                break;
+            case READ_BY_DATE_RANGE:
+                LocalDate from = LocalDate.of(2023, 1, 1).plusDays(random.nextInt(730));
+                policyDbService.getPoliciesByDateRange(from.toString(), from.plusDays(dateRangeDays).toString());
+                break;
+            case CREATE:
+                String policyId = policyDbService.createPolicy(policyData.poll());
+                if (policyId != null) {
+                    policyIds.add(policyId);
+                }
+                break;
+            case UPDATE:
+                String updateId = policyIds.random(random);
+                if (updateId != null) {
+                    Map<String, Object> changes = new HashMap<>();
+                    changes.put("premium", Math.round(random.nextDouble() * 500000) / 100.0);
+                    changes.put("status", UPDATE_STATUSES[random.nextInt(UPDATE_STATUSES.length)]);
+                    policyDbService.updatePolicy(updateId, changes);
+                }
+                break;
+            case DELETE:
+                String deleteId = policyIds.take(random);
+                if (deleteId != null && policyDbService.deletePolicy(deleteId) == 0) {
+                    logger.debug("Soak policy {} was already deleted", deleteId);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation: " + operation);
+        }
+    }
+
+    private List<Map<String, Object>> nextPolicyDataChunk() {
+        return generator.generateChunk(nextPolicyDataChunk.getAndIncrement(), POLICY_DATA_CHUNK_SIZE);
+    }
+
+    private void deleteRemaining(PolicyIdPool policyIds) {
+        List<String> remaining = policyIds.drain();
+        int failures = 0;
+
+        for (String policyId : remaining) {
+            try {
+                policyDbService.deletePolicy(policyId);
+            } catch (SQLException e) {
+                failures++;
+                logger.warn("Failed to delete soak policy {}: {}", policyId, e.getMessage());
+            }
+        }
+        logger.info("Deleted {} policies left by the soak ({} failed)", remaining.size() - failures, failures);
+    }
+
+    private static void awaitWorker(Future<?> worker) throws SQLException {
+        try {
+            worker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for soak workers", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new RuntimeException("Soak worker failed", e.getCause());
+        }
+    }
+
+    private String describeMix() {
+        StringBuilder mix = new StringBuilder();
+        double previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            mix.append(i == 0 ? "" : ", ").append(operations[i]).append('=').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return mix.toString();
+    }
+
+    /**
+     * Classifies a statement failure. Deadlocks are MySQL error 1213, H2 error 40001 or
+     * SQLSTATE 40001; lock wait timeouts are MySQL error 1205 or H2 error 50200.
+     * @param e Statement failure
+     * @return Failure kind
+     */
+    static Failure classify(SQLException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (!(cause instanceof SQLException)) {
+                continue;
+            }
+            SQLException sqlException = (SQLException) cause;
+            int errorCode = sqlException.getErrorCode();
+
+            if (errorCode == 1205 || errorCode == 50200) {
+                return Failure.LOCK_TIMEOUT;
+            }
+            if (errorCode == 1213 || errorCode == 40001 || "40001".equals(sqlException.getSQLState())
+                    || sqlException instanceof SQLTransactionRollbackException) {
+                return Failure.DEADLOCK;
+            }
+        }
+        return Failure.ERROR;
+    }
+
+    /**
+     * Operations in the soak mix
+     */
+    public enum Operation {
+        READ_BY_TYPE,
+        READ_BY_DATE_RANGE,
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    /**
+     * Kinds of operation failure
+     */
+    public enum Failure {
+        DEADLOCK,
+        LOCK_TIMEOUT,
+        ERROR
+    }
+
+    /**
+     * Policy IDs created by the soak, available to updates and deletes
+     */
+    private static class PolicyIdPool {
+        private final List<String> policyIds = new ArrayList<>();
+
+        synchronized void add(String policyId) {
+            policyIds.add(policyId);
+        }
+
+        synchronized boolean isEmpty() {
+            return policyIds.isEmpty();
+        }
+
+        synchronized String random(Random random) {
+            return policyIds.isEmpty() ? null : policyIds.get(random.nextInt(policyIds.size()));
+        }
+
+        synchronized String take(Random random) {
+            if (policyIds.isEmpty()) {
+                return null;
+            }
+            int index = random.nextInt(policyIds.size());
+            String policyId = policyIds.get(index);
+            policyIds.set(index, policyIds.get(policyIds.size() - 1));
+            policyIds.remove(policyIds.size() - 1);
+            return policyId;
+        }
+
+        synchronized List<String> drain() {
+            List<String> remaining = new ArrayList<>(policyIds);
+            policyIds.clear();
+            return remaining;
+        }
+    }
+
+    /**
+     * Results of a soak run
+     */
+    public static class SoakReport {
+        private final int threads;
+        private final Map<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+        private volatile long elapsedNanos;
+
+        SoakReport(int threads) {
+            this.threads = threads;
+            for (Operation operation : Operation.values()) {
+                operations.put(operation, new OperationStats());
+            }
+        }
+
+        void record(Operation operation, long elapsedNanos, SQLException failure) {
+            OperationStats stats = operations.get(operation);
+            stats.latency.record(elapsedNanos);
+
+            if (failure != null) {
+                Failure kind = classify(failure);
+                stats.failures.get(kind).increment();
+                if (kind == Failure.ERROR) {
+                    logger.warn("Soak {} failed: {}", operation, failure.getMessage());
+                }
+            }
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public long getElapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        }
+
+        public OperationStats getOperation(Operation operation) {
+            return operations.get(operation);
+        }
+
+        public long getTotalOperations() {
+            long total = 0;
+            for (OperationStats stats : operations.values()) {
+                total += stats.getCount();
+            }
+            return total;
+        }
+
+        /**
+         * Gets the number of failures of a kind across all operations
+         * @param failure Failure kind
+         * @return Failure count
+         */
+        public long getFailures(Failure failure) {
+            long total = 0;
+            for (OperationStats stats : operations.values()) {
+                total += stats.getFailures(failure);
+            }
+            return total;
+        }
+
+        /**
+         * Gets the overall throughput
+         * @return Operations per second
+         */
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : getTotalOperations() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Formats a plain-text summary table, one row per operation
+         * @return Summary
+         */
+        public String formatSummary() {
+            StringBuilder summary = new StringBuilder();
+            summary.append(String.format("%-18s %8s %9s %9s %9s %9s %9s %9s %9s %7s%n",
+                    "operation", "count", "ops/s", "p50 us", "p95 us", "p99 us", "max us",
+                    "deadlock", "lock wait", "errors"));
+
+            for (Map.Entry<Operation, OperationStats> entry : operations.entrySet()) {
+                OperationStats stats = entry.getValue();
+                LatencyHistogram latency = stats.getLatency();
+                summary.append(String.format("%-18s %8d %9.1f %9d %9d %9d %9d %9d %9d %7d%n",
+                        entry.getKey(), stats.getCount(),
+                        elapsedNanos == 0 ? 0 : stats.getCount() * 1e9 / elapsedNanos,
+                        latency.getPercentileMicros(50), latency.getPercentileMicros(95),
+                        latency.getPercentileMicros(99), latency.getMaxMicros(),
+                        stats.getFailures(Failure.DEADLOCK), stats.getFailures(Failure.LOCK_TIMEOUT),
+                        stats.getFailures(Failure.ERROR)));
+            }
+            summary.append(String.format("%d operations in %d ms on %d threads (%.1f ops/s)%n",
+                    getTotalOperations(), getElapsedMillis(), threads, getThroughput()));
+            return summary.toString();
+        }
+    }
+
+    /**
+     * Latency and failures of one operation; latency includes failed attempts
+     */
+    public static class OperationStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final Map<Failure, LongAdder> failures = new EnumMap<>(Failure.class);
+
+        OperationStats() {
+            for (Failure failure : Failure.values()) {
+                failures.put(failure, new LongAdder());
+            }
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getCount() {
+            return latency.getCount();
+        }
+
+        public long getFailures(Failure failure) {
+            return failures.get(failure).sum();
+        }
+    }
+
+    /**
+     * Builder for PolicySoakHarness
+     */
+    public static class Builder {
+        private final DatabaseManager dbManager;
+        private final Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+        private int threads = 8;
+        private Duration duration = Duration.ofMinutes(1);
+        private long seed = 42;
+        private boolean rollback;
+        private int dateRangeDays = 30;
+
+        private Builder(DatabaseManager dbManager) {
+            this.dbManager = dbManager;
+            weights.put(Operation.READ_BY_TYPE, 0.45);
+            weights.put(Operation.READ_BY_DATE_RANGE, 0.35);
+            weights.put(Operation.CREATE, 0.08);
+            weights.put(Operation.UPDATE, 0.08);
+            weights.put(Operation.DELETE, 0.04);
+        }
+
+        /**
+         * Sets the number of concurrent workers, each using its own pooled connection
+         * @param threads Worker count
+         * @return Builder
+         */
+        public Builder threads(int threads) {
+            this.threads = Math.max(1, threads);
+            return this;
+        }
+
+        /**
+         * Sets how long the soak runs
+         * @param duration Soak duration
+         * @return Builder
+         */
+        public Builder duration(Duration duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        /**
+         * Sets the relative weight of an operation in the mix; 0 removes it
+         * @param operation Operation
+         * @param weight Relative weight
+         * @return Builder
+         */
+        public Builder weight(Operation operation, double weight) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight must not be negative: " + weight);
+            }
+            weights.put(operation, weight);
+            return this;
+        }
+
+        /**
+         * Sets the random seed for operation choice and generated policies
+         * @param seed Seed
+         * @return Builder
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Runs each worker in an isolated transaction that is rolled back at the end
+         * @param rollback Whether to roll back all writes
+         * @return Builder
+         */
+        public Builder rollback(boolean rollback) {
+            this.rollback = rollback;
+            return this;
+        }
+
+        /**
+         * Sets the width of the start date window queried by date range reads
+         * @param days Window in days
+         * @return Builder
+         */
+        public Builder dateRangeDays(int days) {
+            this.dateRangeDays = days;
+            return this;
+        }
+
+        /**
+         * Builds the harness
+         * @return Soak harness
+         */
+        public PolicySoakHarness build() {
+            return new PolicySoakHarness(this);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.activepolicies.dashboard.db;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of policy aggregates taken with a single GROUP BY policy_type pass.
+ * Holds count, premium sum, average, min and max for every type present in the
+ * table, plus a grand total derived from the per-type rows. Checks that need several
+ * aggregates should read them from one snapshot rather than issue one query each.
+ */
+public class PolicyStatistics {
+    private final Map<String, TypeStatistics> byType;
+    private final TypeStatistics total;
+
+    /**
+     * Constructor
+     * @param byType Statistics by policy type
+     */
+    public PolicyStatistics(Map<String, TypeStatistics> byType) {
+        this.byType = Collections.unmodifiableMap(new LinkedHashMap<>(byType));
+
+        long count = 0;
+        long premiumCount = 0;
+        double totalPremium = 0;
+        double minPremium = Double.NaN;
+        double maxPremium = Double.NaN;
+
+        for (TypeStatistics stats : byType.values()) {
+            count += stats.getCount();
+            premiumCount += stats.premiumCount;
+            totalPremium += stats.getTotalPremium();
+            if (Double.isNaN(minPremium) || stats.getMinPremium() < minPremium) {
+                minPremium = stats.getMinPremium();
+            }
+            if (Double.isNaN(maxPremium) || stats.getMaxPremium() > maxPremium) {
+                maxPremium = stats.getMaxPremium();
+            }
+        }
+        this.total = new TypeStatistics(null, count, premiumCount, totalPremium, minPremium, maxPremium);
+    }
+
+    /**
+     * Gets statistics across all policy types
+     * @return Grand total
+     */
+    public TypeStatistics getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets statistics for a policy type
+     * @param policyType Policy type
+     * @return Type statistics, all zero if no policy has that type
+     */
+    public TypeStatistics getType(String policyType) {
+        TypeStatistics stats = byType.get(policyType);
+        return stats == null ? new TypeStatistics(policyType, 0, 0, 0, Double.NaN, Double.NaN) : stats;
+    }
+
+    /**
+     * Gets statistics for every policy type present in the table
+     * @return Statistics by policy type
+     */
+    public Map<String, TypeStatistics> getByType() {
+        return byType;
+    }
+
+    @Override
+    public String toString() {
+        return "PolicyStatistics{total=" + total + ", byType=" + byType.values() + "}";
+    }
+
+    /**
+     * Aggregates for one policy type
+     */
+    public static class TypeStatistics {
+        private final String policyType;
+        private final long count;
+        private final long premiumCount;
+        private final double totalPremium;
+        private final double minPremium;
+        private final double maxPremium;
+
+        /**
+         * Constructor
+         * @param policyType Policy type, or null for the grand total
+         * @param count Number of policies
+         * @param premiumCount Number of policies with a premium
+         * @param totalPremium Sum of premiums
+         * @param minPremium Minimum premium, or NaN if there are none
+         * @param maxPremium Maximum premium, or NaN if there are none
+         */
+        public TypeStatistics(String policyType, long count, long premiumCount, double totalPremium,
+                              double minPremium, double maxPremium) {
+            this.policyType = policyType;
+            this.count = count;
+            this.premiumCount = premiumCount;
+            this.totalPremium = totalPremium;
+            this.minPremium = minPremium;
+            this.maxPremium = maxPremium;
+        }
+
+        public String getPolicyType() {
+            return policyType;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getTotalPremium() {
+            return totalPremium;
+        }
+
+        /**
+         * Gets average premium, ignoring policies without a premium like SQL AVG
+         * @return Average premium, or 0 if there are none
+         */
+        public double getAveragePremium() {
+            return premiumCount == 0 ? 0 : totalPremium / premiumCount;
+        }
+
+        public double getMinPremium() {
+            return minPremium;
+        }
+
+        public double getMaxPremium() {
+            return maxPremium;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: count=%d, total=%.2f, avg=%.2f, min=%.2f, max=%.2f",
+                    policyType == null ? "ALL" : policyType, count, totalPremium,
+                    getAveragePremium(), minPremium, maxPremium);
+        }
+    }
+}
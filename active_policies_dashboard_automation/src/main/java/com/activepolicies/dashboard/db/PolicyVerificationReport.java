@@ -0,0 +1,108 @@
+package com.activepolicies.dashboard.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of verifying UI policy records against the database: field mismatches
+ * and policies missing from the database
+ */
+public class PolicyVerificationReport {
+    private final List<Mismatch> mismatches = new ArrayList<>();
+    private final List<String> missingPolicyIds = new ArrayList<>();
+    private int verifiedCount;
+    private int queryCount;
+
+    void addMismatch(Mismatch mismatch) {
+        mismatches.add(mismatch);
+    }
+
+    void addMissing(String policyId) {
+        missingPolicyIds.add(policyId);
+    }
+
+    void incrementVerified() {
+        verifiedCount++;
+    }
+
+    void incrementQueries() {
+        queryCount++;
+    }
+
+    /**
+     * Checks if every policy was found and all compared fields matched
+     * @return true if there are no mismatches or missing policies
+     */
+    public boolean isSuccessful() {
+        return mismatches.isEmpty() && missingPolicyIds.isEmpty();
+    }
+
+    public List<Mismatch> getMismatches() {
+        return Collections.unmodifiableList(mismatches);
+    }
+
+    public List<String> getMissingPolicyIds() {
+        return Collections.unmodifiableList(missingPolicyIds);
+    }
+
+    /**
+     * Gets number of policies checked, including missing ones
+     * @return Verified policy count
+     */
+    public int getVerifiedCount() {
+        return verifiedCount;
+    }
+
+    /**
+     * Gets number of database queries used
+     * @return Query count
+     */
+    public int getQueryCount() {
+        return queryCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("verified=%d, mismatches=%d, missing=%d, queries=%d",
+                verifiedCount, mismatches.size(), missingPolicyIds.size(), queryCount);
+    }
+
+    /**
+     * A field whose database value differs from the UI value
+     */
+    public static class Mismatch {
+        private final String policyId;
+        private final String field;
+        private final Object databaseValue;
+        private final Object uiValue;
+
+        public Mismatch(String policyId, String field, Object databaseValue, Object uiValue) {
+            this.policyId = policyId;
+            this.field = field;
+            this.databaseValue = databaseValue;
+            this.uiValue = uiValue;
+        }
+
+        public String getPolicyId() {
+            return policyId;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public Object getDatabaseValue() {
+            return databaseValue;
+        }
+
+        public Object getUiValue() {
+            return uiValue;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s: %s vs %s", policyId, field, databaseValue, uiValue);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.activepolicies.dashboard.db;
+
+import com.activepolicies.dashboard.utils.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Process-wide per-statement metrics recorded by DatabaseManager, keyed by
+ * normalized SQL so that statements differing only in literals or IN list
+ * length are aggregated together
+ */
+public class QueryMetrics {
+    private static final Map<String, StatementMetrics> statements = new ConcurrentHashMap<>();
+    // Raw SQL text to metrics, so the normalizing regexes run once per distinct text
+    private static final Map<String, StatementMetrics> rawStatements = new ConcurrentHashMap<>();
+    private static final int MAX_RAW_STATEMENTS = 10000;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private QueryMetrics() {
+    }
+
+    /**
+     * Gets the metrics for a statement, creating them on first use
+     * @param sql SQL text
+     * @return Statement metrics
+     */
+    public static StatementMetrics forStatement(String sql) {
+        StatementMetrics metrics = rawStatements.get(sql);
+        if (metrics != null) {
+            return metrics;
+        }
+
+        metrics = statements.computeIfAbsent(normalize(sql), StatementMetrics::new);
+        if (rawStatements.size() < MAX_RAW_STATEMENTS) {
+            rawStatements.put(sql, metrics);
+        }
+        return metrics;
+    }
+
+    /**
+     * Normalizes SQL text: literals become ?, IN lists collapse to IN (?...)
+     * and whitespace is collapsed
+     * @param sql SQL text
+     * @return Normalized SQL
+     */
+    public static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return IN_LIST.matcher(normalized).replaceAll("IN (?...)");
+    }
+
+    /**
+     * Gets metrics for every statement seen, slowest total time first
+     * @return Statement metrics
+     */
+    public static List<StatementMetrics> getStatements() {
+        List<StatementMetrics> result = new ArrayList<>(statements.values());
+        result.sort(Comparator.comparingLong((StatementMetrics m) -> m.getLatency().getTotalMicros()).reversed());
+        return result;
+    }
+
+    /**
+     * Formats a plain-text summary table of all statements
+     * @return Summary
+     */
+    public static String formatSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("%8s %7s %9s %9s %9s %9s %10s %12s %10s  %s%n",
+                "calls", "errors", "total ms", "mean us", "p95 us", "max us", "rows", "bytes", "wait us", "statement"));
+
+        for (StatementMetrics metrics : getStatements()) {
+            LatencyHistogram latency = metrics.getLatency();
+            summary.append(String.format("%8d %7d %9d %9.0f %9d %9d %10d %12d %10d  %s%n",
+                    latency.getCount(), metrics.getErrors(), TimeUnit.MICROSECONDS.toMillis(latency.getTotalMicros()),
+                    latency.getMeanMicros(), latency.getPercentileMicros(95), latency.getMaxMicros(),
+                    metrics.getRows(), metrics.getBytes(), metrics.getConnectionWaitMicros(), metrics.getSql()));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Discards all recorded metrics
+     */
+    public static void reset() {
+        rawStatements.clear();
+        statements.clear();
+    }
+
+    /**
+     * Metrics for one normalized statement
+     */
+    public static class StatementMetrics {
+        private final String sql;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong executions = new AtomicLong();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder connectionWaitNanos = new LongAdder();
+
+        StatementMetrics(String sql) {
+            this.sql = sql;
+        }
+
+        /**
+         * Counts an execution
+         * @param sampleRate Log one execution in this many
+         * @return true if this execution should be logged; the first execution always is
+         */
+        public boolean startExecution(int sampleRate) {
+            long execution = executions.incrementAndGet();
+            return sampleRate <= 1 || execution % sampleRate == 1;
+        }
+
+        /**
+         * Records a completed execution
+         * @param elapsedNanos Statement latency including reading the results
+         * @param rowCount Rows returned or affected
+         * @param byteCount Estimated bytes fetched
+         * @param waitNanos Time spent waiting for a connection
+         * @param failed Whether the statement failed
+         */
+        public void record(long elapsedNanos, long rowCount, long byteCount, long waitNanos, boolean failed) {
+            latency.record(elapsedNanos);
+            rows.add(rowCount);
+            bytes.add(byteCount);
+            connectionWaitNanos.add(waitNanos);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        public long getConnectionWaitMicros() {
+            return TimeUnit.NANOSECONDS.toMicros(connectionWaitNanos.sum());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s [%s, rows=%d, bytes=%d, wait=%dus, errors=%d]",
+                    sql, latency, getRows(), getBytes(), getConnectionWaitMicros(), getErrors());
+        }
+    }
+}
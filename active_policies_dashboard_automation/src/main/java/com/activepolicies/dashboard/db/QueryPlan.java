@@ -0,0 +1,87 @@
+package com.activepolicies.dashboard.db;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Execution plan captured for a statement by QueryPlanInspector, with the
+ * problems found in it
+ */
+public class QueryPlan {
+    private final String sql;
+    private final String planText;
+    private final long estimatedRows;
+    private final long actualRows;
+    private final Set<Finding> findings;
+
+    /**
+     * Constructor
+     * @param sql SQL statement
+     * @param planText Plan as reported by the database, one row per line
+     * @param estimatedRows Rows the optimizer expects to examine, or -1 if not reported
+     * @param actualRows Rows examined according to EXPLAIN ANALYZE, or -1 if not analyzed
+     * @param findings Problems found in the plan
+     */
+    public QueryPlan(String sql, String planText, long estimatedRows, long actualRows, Set<Finding> findings) {
+        this.sql = sql;
+        this.planText = planText;
+        this.estimatedRows = estimatedRows;
+        this.actualRows = actualRows;
+        this.findings = findings.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(findings));
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public String getPlanText() {
+        return planText;
+    }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    public long getActualRows() {
+        return actualRows;
+    }
+
+    public Set<Finding> getFindings() {
+        return findings;
+    }
+
+    public boolean hasFinding(Finding finding) {
+        return findings.contains(finding);
+    }
+
+    /**
+     * Checks if the plan fails the row budget check
+     * @return true if the statement examines more rows than db.plan.max.rows
+     */
+    public boolean isViolation() {
+        return findings.contains(Finding.ROW_BUDGET_EXCEEDED);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [findings=%s, estimatedRows=%d, actualRows=%d]%n%s",
+                sql, findings, estimatedRows, actualRows, planText);
+    }
+
+    /**
+     * Plan problems reported by QueryPlanInspector
+     */
+    public enum Finding {
+        /** A table is read in full instead of through an index */
+        FULL_SCAN,
+        /** Rows are sorted after reading instead of read in index order */
+        FILESORT,
+        /** An intermediate temporary table is built, e.g. for an unindexed GROUP BY */
+        TEMPORARY_TABLE,
+        /** More rows are examined than the configured budget */
+        ROW_BUDGET_EXCEEDED
+    }
+}
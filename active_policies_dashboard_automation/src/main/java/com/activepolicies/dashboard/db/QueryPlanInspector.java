@@ -0,0 +1,318 @@
+package com.activepolicies.dashboard.db;
+
+import com.activepolicies.dashboard.db.QueryPlan.Finding;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Captures execution plans with EXPLAIN, and EXPLAIN ANALYZE for SELECTs where
+ * the database supports it, and flags full table scans, filesorts, temporary
+ * tables and statements that examine more rows than a budget.
+ *
+ * On MySQL the findings come from the type and Extra columns of EXPLAIN and the
+ * estimate from its rows column; EXPLAIN ANALYZE (8.0.18+) adds actual rows, summed
+ * over the table access nodes (scans and lookups) so an aggregate counts the rows it
+ * read rather than the rows it returned.
+ * H2 only reports row counts under EXPLAIN ANALYZE (scanCount); its plan text
+ * marks full scans with tableScan and index-ordered reads with index/group sorted.
+ *
+ * Plans inspected through inspectOnce are kept process-wide, one per normalized
+ * statement, for the end-of-run report. Later executions of a statement get the
+ * kept plan, findings and verdict included, without running EXPLAIN again.
+ */
+public class QueryPlanInspector {
+    private static final Logger logger = LogManager.getLogger(QueryPlanInspector.class);
+    private static final Map<String, QueryPlan> inspectedPlans = new ConcurrentHashMap<>();
+    private static final Pattern H2_SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+    private static final Pattern MYSQL_ACCESS_ROWS = Pattern.compile(
+            "-> [^\\n]*?(?:scan|lookup|search) on [^\\n]*?\\(actual time=[^)]*?rows=([\\d.]+) loops=(\\d+)\\)");
+
+    private final DatabaseDialect dialect;
+    private final boolean analyze;
+    private final long rowBudget;
+    private volatile boolean analyzeSupported = true;
+
+    /**
+     * Constructor
+     * @param dialect Database dialect
+     * @param analyze Whether to run EXPLAIN ANALYZE for SELECTs. This executes the query.
+     * @param rowBudget Maximum rows a statement may examine, or 0 for no budget
+     */
+    public QueryPlanInspector(DatabaseDialect dialect, boolean analyze, long rowBudget) {
+        this.dialect = dialect;
+        this.analyze = analyze;
+        this.rowBudget = rowBudget;
+    }
+
+    /**
+     * Checks if a statement can be explained
+     * @param sql SQL statement
+     * @return true for SELECT, UPDATE and DELETE on MySQL and H2
+     */
+    public boolean canInspect(String sql) {
+        if (dialect == DatabaseDialect.GENERIC) {
+            return false;
+        }
+        String verb = firstWord(sql);
+        return verb.equals("SELECT") || verb.equals("UPDATE") || verb.equals("DELETE");
+    }
+
+    /**
+     * Gets the plan of a statement, inspecting it only the first time its normalized SQL
+     * is seen. The plan, and so the verdict, is that of the first execution's parameters.
+     * @param conn Connection to explain on; must not have an open streaming result
+     * @param sql SQL statement
+     * @param params Statement parameters, may be null
+     * @return The statement's plan, or null if the statement cannot be inspected
+     * @throws SQLException if EXPLAIN fails
+     */
+    public QueryPlan inspectOnce(Connection conn, String sql, List<Object> params) throws SQLException {
+        if (!canInspect(sql)) {
+            return null;
+        }
+        String key = QueryMetrics.normalize(sql);
+        QueryPlan known = inspectedPlans.get(key);
+        if (known != null) {
+            return known;
+        }
+
+        QueryPlan plan = inspect(conn, sql, params);
+        known = inspectedPlans.putIfAbsent(key, plan);
+        if (known != null) {
+            return known;
+        }
+
+        if (plan.isViolation()) {
+            logger.error("Query plan exceeds row budget of {}: {}", rowBudget, plan);
+        } else if (!plan.getFindings().isEmpty()) {
+            logger.warn("Query plan findings: {}", plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Explains a statement and analyzes the plan
+     * @param conn Connection to explain on
+     * @param sql SQL statement
+     * @param params Statement parameters, may be null
+     * @return Query plan
+     * @throws SQLException if EXPLAIN fails
+     */
+    public QueryPlan inspect(Connection conn, String sql, List<Object> params) throws SQLException {
+        QueryResult planRows = explain(conn, "EXPLAIN " + sql, params);
+        StringBuilder planText = new StringBuilder(formatRows(planRows));
+        Set<Finding> findings = EnumSet.noneOf(Finding.class);
+        long estimatedRows = -1;
+        long actualRows = -1;
+
+        if (dialect == DatabaseDialect.MYSQL) {
+            estimatedRows = analyzeMySqlPlan(planRows, findings);
+        } else {
+            analyzeH2Plan(planText.toString(), sql, findings);
+        }
+
+        if (analyze && analyzeSupported && firstWord(sql).equals("SELECT")) {
+            try {
+                String analyzed = formatRows(explain(conn, "EXPLAIN ANALYZE " + sql, params));
+                planText.append(analyzed);
+                actualRows = parseActualRows(analyzed);
+            } catch (SQLException e) {
+                analyzeSupported = false;
+                logger.info("EXPLAIN ANALYZE is not supported, using estimates only: {}", e.getMessage());
+            }
+        }
+
+        long examinedRows = actualRows >= 0 ? actualRows : estimatedRows;
+        if (rowBudget > 0 && examinedRows > rowBudget) {
+            findings.add(Finding.ROW_BUDGET_EXCEEDED);
+        }
+
+        return new QueryPlan(sql, planText.toString(), estimatedRows, actualRows, findings);
+    }
+
+    /**
+     * Runs plain EXPLAIN, never EXPLAIN ANALYZE, so the statement itself is not executed again
+     * @param conn Connection to explain on
+     * @param sql SQL statement
+     * @param params Statement parameters, may be null
+     * @return Plan rows, one per line
+     * @throws SQLException if EXPLAIN fails
+     */
+    public String explainText(Connection conn, String sql, List<Object> params) throws SQLException {
+        return formatRows(explain(conn, "EXPLAIN " + sql, params));
+    }
+
+    /**
+     * Gets the plan inspectOnce captured for a statement
+     * @param sql SQL statement
+     * @return Plan kept for the statement's normalized SQL, or null if it has not been inspected
+     */
+    public static QueryPlan getInspectedPlan(String sql) {
+        return inspectedPlans.get(QueryMetrics.normalize(sql));
+    }
+
+    /**
+     * Gets every plan captured by inspectOnce
+     * @return Plans in no particular order
+     */
+    public static Collection<QueryPlan> getInspectedPlans() {
+        return new ArrayList<>(inspectedPlans.values());
+    }
+
+    /**
+     * Gets captured plans that exceed their row budget
+     * @return Violating plans
+     */
+    public static List<QueryPlan> getViolations() {
+        List<QueryPlan> violations = new ArrayList<>();
+        for (QueryPlan plan : inspectedPlans.values()) {
+            if (plan.isViolation()) {
+                violations.add(plan);
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Formats captured plans that have findings
+     * @return Report, one plan per paragraph
+     */
+    public static String formatReport() {
+        StringBuilder report = new StringBuilder();
+        for (QueryPlan plan : inspectedPlans.values()) {
+            if (!plan.getFindings().isEmpty()) {
+                report.append(plan).append(System.lineSeparator());
+            }
+        }
+        return report.length() == 0 ? "No query plan findings" : report.toString();
+    }
+
+    /**
+     * Reads MySQL EXPLAIN rows: type ALL means a full scan, Extra reports filesorts and
+     * temporary tables, and the row estimates multiply across joined tables
+     * @return Estimated rows examined
+     */
+    private long analyzeMySqlPlan(QueryResult planRows, Set<Finding> findings) {
+        long estimatedRows = 1;
+
+        for (ResultRow row : planRows) {
+            String extra = String.valueOf(row.get("Extra"));
+            long rows = row.getLong("rows");
+
+            if ("ALL".equalsIgnoreCase(row.getString("type"))) {
+                findings.add(Finding.FULL_SCAN);
+            }
+            if (extra.contains("Using filesort")) {
+                findings.add(Finding.FILESORT);
+            }
+            if (extra.contains("Using temporary")) {
+                findings.add(Finding.TEMPORARY_TABLE);
+            }
+            if (rows > 0) {
+                estimatedRows = rows > Long.MAX_VALUE / estimatedRows ? Long.MAX_VALUE : estimatedRows * rows;
+            }
+        }
+        return estimatedRows;
+    }
+
+    /**
+     * Reads H2 plan text. H2 has no filesort or temporary table notion, so an ORDER BY
+     * or GROUP BY not satisfied by an index is reported as those findings instead.
+     */
+    private void analyzeH2Plan(String planText, String sql, Set<Finding> findings) {
+        String upperSql = sql.toUpperCase(Locale.ROOT);
+
+        if (planText.contains(".tableScan")) {
+            findings.add(Finding.FULL_SCAN);
+        }
+        if (upperSql.contains("ORDER BY") && !planText.contains("index sorted")) {
+            findings.add(Finding.FILESORT);
+        }
+        if (upperSql.contains("GROUP BY") && !planText.contains("group sorted")) {
+            findings.add(Finding.TEMPORARY_TABLE);
+        }
+    }
+
+    /**
+     * Sums the rows read from tables: H2 reports one scanCount per table, MySQL reports
+     * per-loop rows on every node, of which only the scan and lookup nodes read tables
+     * @return Actual rows examined, or -1 if the plan reports none
+     */
+    private long parseActualRows(String analyzed) {
+        boolean mysql = dialect == DatabaseDialect.MYSQL;
+        Matcher matcher = (mysql ? MYSQL_ACCESS_ROWS : H2_SCAN_COUNT).matcher(analyzed);
+        long rows = -1;
+
+        while (matcher.find()) {
+            long nodeRows = mysql
+                    ? Math.round(Double.parseDouble(matcher.group(1)) * Long.parseLong(matcher.group(2)))
+                    : Long.parseLong(matcher.group(1));
+            rows = Math.max(rows, 0) + nodeRows;
+        }
+        return rows;
+    }
+
+    private QueryResult explain(Connection conn, String explainSql, List<Object> params) throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(explainSql)) {
+            bind(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSchema schema = ResultSchema.from(rs.getMetaData());
+                while (rs.next()) {
+                    Object[] values = new Object[schema.getColumnCount()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = rs.getObject(i + 1);
+                    }
+                    rows.add(values);
+                }
+                return new QueryResult(schema, rows);
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, List<Object> params) throws SQLException {
+        if (params != null) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+        }
+    }
+
+    private static String formatRows(QueryResult rows) {
+        StringBuilder text = new StringBuilder();
+        int columnCount = rows.getSchema().getColumnCount();
+
+        for (ResultRow row : rows) {
+            for (int i = 0; i < columnCount; i++) {
+                text.append(i == 0 ? "" : " | ").append(row.get(i));
+            }
+            text.append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+
+    private static String firstWord(String sql) {
+        String trimmed = sql.trim();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+}
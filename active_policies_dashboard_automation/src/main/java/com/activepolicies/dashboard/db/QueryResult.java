@@ -0,0 +1,100 @@
+package com.activepolicies.dashboard.db;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact query result. Column metadata is held once in a ResultSchema and
+ * each row is a plain value array, which is several times smaller than a
+ * HashMap per row.
+ */
+public class QueryResult implements Iterable<ResultRow> {
+    private final ResultSchema schema;
+    private final List<Object[]> rows;
+
+    /**
+     * Constructor
+     * @param schema Result schema
+     * @param rows Row values in schema order
+     */
+    public QueryResult(ResultSchema schema, List<Object[]> rows) {
+        this.schema = schema;
+        this.rows = rows;
+    }
+
+    /**
+     * Gets the result schema
+     * @return Result schema
+     */
+    public ResultSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Gets number of rows
+     * @return Row count
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Checks if the result has no rows
+     * @return true if empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return rows.isEmpty();
+    }
+
+    /**
+     * Gets row by index
+     * @param rowIndex Row index, starting at 0
+     * @return Row view
+     */
+    public ResultRow getRow(int rowIndex) {
+        return new ResultRow(schema, rows.get(rowIndex));
+    }
+
+    /**
+     * Gets a single value
+     * @param rowIndex Row index, starting at 0
+     * @param columnName Column name
+     * @return Column value, or null if the column does not exist
+     */
+    public Object get(int rowIndex, String columnName) {
+        int columnIndex = schema.indexOf(columnName);
+        return columnIndex < 0 ? null : rows.get(rowIndex)[columnIndex];
+    }
+
+    /**
+     * Converts the result to the list-of-maps form returned by executeQuery
+     * @return List of maps representing rows
+     */
+    public List<Map<String, Object>> toMaps() {
+        List<Map<String, Object>> maps = new ArrayList<>(rows.size());
+
+        for (Object[] values : rows) {
+            maps.add(new ResultRow(schema, values).toMap());
+        }
+        return maps;
+    }
+
+    @Override
+    public Iterator<ResultRow> iterator() {
+        Iterator<Object[]> values = rows.iterator();
+
+        return new Iterator<ResultRow>() {
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+
+            @Override
+            public ResultRow next() {
+                return new ResultRow(schema, values.next());
+            }
+        };
+    }
+}
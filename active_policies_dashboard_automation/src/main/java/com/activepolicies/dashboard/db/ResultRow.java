@@ -0,0 +1,97 @@
+package com.activepolicies.dashboard.db;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single result row stored as a value array over a shared ResultSchema
+ */
+public class ResultRow {
+    private final ResultSchema schema;
+    private final Object[] values;
+
+    /**
+     * Constructor
+     * @param schema Shared result schema
+     * @param values Column values in schema order
+     */
+    public ResultRow(ResultSchema schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+    }
+
+    /**
+     * Gets the schema shared by all rows of the result
+     * @return Result schema
+     */
+    public ResultSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Gets value by column index
+     * @param index Column index, starting at 0
+     * @return Column value
+     */
+    public Object get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Gets value by column name
+     * @param columnName Column name
+     * @return Column value, or null if the column does not exist
+     */
+    public Object get(String columnName) {
+        int index = schema.indexOf(columnName);
+        return index < 0 ? null : values[index];
+    }
+
+    /**
+     * Gets value by column name as a string
+     * @param columnName Column name
+     * @return String value, or null
+     */
+    public String getString(String columnName) {
+        Object value = get(columnName);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Gets numeric value by column name as a double
+     * @param columnName Column name
+     * @return Double value, or 0 if the value is null
+     */
+    public double getDouble(String columnName) {
+        Object value = get(columnName);
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+
+    /**
+     * Gets numeric value by column name as a long
+     * @param columnName Column name
+     * @return Long value, or 0 if the value is null
+     */
+    public long getLong(String columnName) {
+        Object value = get(columnName);
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+
+    /**
+     * Copies the row into a map keyed by column name
+     * @return Row map
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> row = new HashMap<>();
+
+        for (int i = 0; i < values.length; i++) {
+            row.put(schema.getColumnName(i), values[i]);
+        }
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.activepolicies.dashboard.db;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column layout of a result set, resolved once and shared by all of its rows
+ */
+public class ResultSchema {
+    private final String[] columnNames;
+    private final Map<String, Integer> columnIndexes;
+
+    /**
+     * Constructor
+     * @param columnNames Column names in result set order
+     */
+    public ResultSchema(String[] columnNames) {
+        this.columnNames = columnNames.clone();
+        this.columnIndexes = new HashMap<>();
+
+        for (int i = 0; i < columnNames.length; i++) {
+            columnIndexes.putIfAbsent(columnNames[i], i);
+            columnIndexes.putIfAbsent(columnNames[i].toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    /**
+     * Creates a schema from result set metadata
+     * @param metaData Result set metadata
+     * @return Result schema
+     * @throws SQLException if metadata cannot be read
+     */
+    public static ResultSchema from(ResultSetMetaData metaData) throws SQLException {
+        String[] names = new String[metaData.getColumnCount()];
+
+        for (int i = 0; i < names.length; i++) {
+            names[i] = metaData.getColumnLabel(i + 1);
+        }
+        return new ResultSchema(names);
+    }
+
+    /**
+     * Gets number of columns
+     * @return Column count
+     */
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    /**
+     * Gets column name by index
+     * @param index Column index, starting at 0
+     * @return Column name
+     */
+    public String getColumnName(int index) {
+        return columnNames[index];
+    }
+
+    /**
+     * Gets all column names
+     * @return Column names in result set order
+     */
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(Arrays.asList(columnNames));
+    }
+
+    /**
+     * Gets column index by name. Falls back to a case-insensitive match.
+     * @param columnName Column name
+     * @return Column index starting at 0, or -1 if the column does not exist
+     */
+    public int indexOf(String columnName) {
+        Integer index = columnIndexes.get(columnName);
+
+        if (index == null) {
+            index = columnIndexes.get(columnName.toLowerCase(Locale.ROOT));
+        }
+        return index == null ? -1 : index;
+    }
+}
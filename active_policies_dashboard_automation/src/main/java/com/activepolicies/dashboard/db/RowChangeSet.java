@@ -0,0 +1,141 @@
+package com.activepolicies.dashboard.db;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rows added, changed or deleted since a RowHashStore was last committed, together
+ * with the new row hashes. Only the changed rows are held in memory; the new hashes
+ * wait in a temporary file until commit, so the store only moves forward after the
+ * changed rows were verified. Close without committing to discard them.
+ */
+public class RowChangeSet implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(RowChangeSet.class);
+
+    private final RowHashStore store;
+    private final Path pendingFile;
+    private final List<Long> addedIds;
+    private final List<Long> changedIds;
+    private final List<Long> deletedIds;
+    private final long unchangedCount;
+    private boolean finished;
+
+    RowChangeSet(RowHashStore store, Path pendingFile, List<Long> addedIds, List<Long> changedIds,
+            List<Long> deletedIds, long unchangedCount) {
+        this.store = store;
+        this.pendingFile = pendingFile;
+        this.addedIds = addedIds;
+        this.changedIds = changedIds;
+        this.deletedIds = deletedIds;
+        this.unchangedCount = unchangedCount;
+    }
+
+    public List<String> getAddedIds() {
+        return toStrings(addedIds);
+    }
+
+    public List<String> getChangedIds() {
+        return toStrings(changedIds);
+    }
+
+    public List<String> getDeletedIds() {
+        return toStrings(deletedIds);
+    }
+
+    /**
+     * Gets the rows whose current data needs verifying
+     * @return Added and changed row IDs in ascending order
+     */
+    public List<String> getIdsToVerify() {
+        List<Long> ids = new ArrayList<>(addedIds.size() + changedIds.size());
+        ids.addAll(addedIds);
+        ids.addAll(changedIds);
+        Collections.sort(ids);
+        return toStrings(ids);
+    }
+
+    public long getUnchangedCount() {
+        return unchangedCount;
+    }
+
+    /**
+     * Checks if nothing was added, changed or deleted
+     * @return true if verification can be skipped
+     */
+    public boolean isEmpty() {
+        return addedIds.isEmpty() && changedIds.isEmpty() && deletedIds.isEmpty();
+    }
+
+    /**
+     * Records the new row hashes after every change was verified
+     * @throws IOException if the store cannot be written
+     */
+    public void commit() throws IOException {
+        commit(Collections.emptyList());
+    }
+
+    /**
+     * Records the new row hashes, leaving out rows that failed verification so
+     * they are reported as added and verified again next time
+     * @param failedIds IDs of rows that failed verification
+     * @throws IOException if the store cannot be written
+     */
+    public void commit(Collection<String> failedIds) throws IOException {
+        checkNotFinished();
+        finished = true;
+
+        Set<Long> excludedIds = new HashSet<>();
+        for (String failedId : failedIds) {
+            excludedIds.add(Long.parseLong(failedId));
+        }
+        store.replaceWith(pendingFile, excludedIds);
+        logger.info("Committed row hashes to {} ({} rows left for re-verification)", store.getFile(), excludedIds.size());
+    }
+
+    /**
+     * Discards the new row hashes unless committed
+     */
+    @Override
+    public void close() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+
+        try {
+            Files.deleteIfExists(pendingFile);
+        } catch (IOException e) {
+            logger.warn("Failed to delete pending row hashes {}", pendingFile, e);
+        }
+    }
+
+    private void checkNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("Change set has already been committed or discarded");
+        }
+    }
+
+    private static List<String> toStrings(List<Long> ids) {
+        List<String> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            result.add(String.valueOf(id));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("added=%d, changed=%d, deleted=%d, unchanged=%d",
+                addedIds.size(), changedIds.size(), deletedIds.size(), unchangedCount);
+    }
+}
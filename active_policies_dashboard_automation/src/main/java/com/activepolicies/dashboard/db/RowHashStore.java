@@ -0,0 +1,183 @@
+package com.activepolicies.dashboard.db;
+
+import com.activepolicies.dashboard.utils.ConfigurationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+
+/**
+ * Per-row hashes of verified data, persisted across runs as a binary file of
+ * (row ID, hash) pairs in ascending ID order. Being sorted, the file can be
+ * merge-joined against rows streamed from the database in key order with
+ * constant memory, however many rows the table has.
+ */
+public class RowHashStore {
+    private static final int MAGIC = 0x52484831; // RHH1
+
+    private final Path file;
+
+    /**
+     * Constructor
+     * @param file Store file; does not need to exist yet
+     */
+    public RowHashStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens a named store in the configured verification.state.dir
+     * @param name Verification name, e.g. ui-policies
+     * @return Row hash store
+     */
+    public static RowHashStore fromConfig(String name) {
+        String stateDir = ConfigurationManager.getInstance().getProperty("verification.state.dir", "target/verification-state");
+        return new RowHashStore(Paths.get(stateDir, name + ".rowhashes"));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Opens the stored hashes for reading
+     * @return Reader, empty if nothing has been recorded
+     * @throws IOException if the file cannot be read or is not a row hash store
+     */
+    Reader openReader() throws IOException {
+        return Files.exists(file) ? openReader(file) : new Reader(null);
+    }
+
+    private static Reader openReader(Path path) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+        if (input.readInt() != MAGIC) {
+            input.close();
+            throw new IOException("Not a row hash store: " + path);
+        }
+        return new Reader(input);
+    }
+
+    /**
+     * Starts writing a new version of the store to a temporary file next to it
+     * @return Writer; rows must be written in ascending ID order
+     * @throws IOException if the file cannot be created
+     */
+    Writer openWriter() throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        return new Writer(Files.createTempFile(directory, file.getFileName().toString(), ".tmp"));
+    }
+
+    /**
+     * Replaces the store with a finished temporary file, leaving out rows that must be verified again
+     * @param tempFile Temporary file written by a Writer
+     * @param excludedIds Row IDs to drop, so they are reported as added next time
+     * @throws IOException if the file cannot be replaced
+     */
+    void replaceWith(Path tempFile, Set<Long> excludedIds) throws IOException {
+        if (!excludedIds.isEmpty()) {
+            Path filtered = tempFile.resolveSibling(tempFile.getFileName() + ".filtered");
+
+            try (Reader reader = openReader(tempFile);
+                 Writer writer = new Writer(filtered)) {
+                while (reader.next()) {
+                    if (!excludedIds.contains(reader.getId())) {
+                        writer.write(reader.getId(), reader.getHash());
+                    }
+                }
+            }
+            Files.delete(tempFile);
+            tempFile = filtered;
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Sequential reader over stored (ID, hash) pairs
+     */
+    static class Reader implements AutoCloseable {
+        private final DataInputStream input;
+        private long id;
+        private long hash;
+
+        Reader(DataInputStream input) {
+            this.input = input;
+        }
+
+        /**
+         * Advances to the next pair
+         * @return false at the end of the store
+         * @throws IOException if the file cannot be read
+         */
+        boolean next() throws IOException {
+            if (input == null) {
+                return false;
+            }
+            try {
+                id = input.readLong();
+            } catch (EOFException e) {
+                return false;
+            }
+            hash = input.readLong();
+            return true;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        long getHash() {
+            return hash;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (input != null) {
+                input.close();
+            }
+        }
+    }
+
+    /**
+     * Writer of a new store version
+     */
+    static class Writer implements AutoCloseable {
+        private final Path tempFile;
+        private final DataOutputStream output;
+        private long lastId = Long.MIN_VALUE;
+        private boolean empty = true;
+
+        Writer(Path tempFile) throws IOException {
+            this.tempFile = tempFile;
+            this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 1 << 16));
+            output.writeInt(MAGIC);
+        }
+
+        void write(long id, long hash) throws IOException {
+            if (!empty && id <= lastId) {
+                throw new IllegalStateException("Row IDs must be written in ascending order: " + id + " after " + lastId);
+            }
+            output.writeLong(id);
+            output.writeLong(hash);
+            lastId = id;
+            empty = false;
+        }
+
+        Path getTempFile() {
+            return tempFile;
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.activepolicies.dashboard.db;
+
+import com.activepolicies.dashboard.utils.CacheStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-connection LRU cache of prepared statements keyed by SQL text.
+ * Statements are prepared on the physical connection behind a pooled proxy,
+ * so they survive the connection being returned to and borrowed from the pool.
+ * A physical connection is only ever used by one thread at a time, so each
+ * cache sees no contention.
+ */
+public class StatementCache {
+    private static final Logger logger = LogManager.getLogger(StatementCache.class);
+    private static final Map<Connection, StatementCache> caches = new ConcurrentHashMap<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder evictions = new LongAdder();
+
+    private final Connection physicalConnection;
+    private final Map<String, PreparedStatement> statements;
+
+    private StatementCache(Connection physicalConnection, int maxSize) {
+        this.physicalConnection = physicalConnection;
+        this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the statement cache of a connection
+     * @param conn Connection or pooled proxy
+     * @param maxSize Maximum statements cached per connection
+     * @return Statement cache
+     * @throws SQLException if the physical connection cannot be resolved
+     */
+    public static StatementCache forConnection(Connection conn, int maxSize) throws SQLException {
+        Connection physical = conn.isWrapperFor(Connection.class) ? conn.unwrap(Connection.class) : conn;
+
+        StatementCache cache = caches.get(physical);
+        if (cache == null) {
+            removeClosedConnections();
+            cache = caches.computeIfAbsent(physical, c -> new StatementCache(c, maxSize));
+        }
+        return cache;
+    }
+
+    /**
+     * Gets hit/miss counters across all connections
+     * @return Cache statistics
+     */
+    public static CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Returns a cached statement for the SQL text, preparing it on a miss.
+     * Callers must not close the statement; parameters are cleared on release.
+     * @param sql SQL text
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS
+     * @return Prepared statement
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public synchronized PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys + ":" + sql;
+        PreparedStatement stmt = statements.get(key);
+
+        if (stmt != null && !stmt.isClosed()) {
+            hits.increment();
+            return stmt;
+        }
+
+        misses.increment();
+        stmt = physicalConnection.prepareStatement(sql, autoGeneratedKeys);
+        statements.put(key, stmt);
+        return stmt;
+    }
+
+    /**
+     * Drops caches of connections the pool has closed
+     */
+    private static void removeClosedConnections() {
+        Iterator<Connection> connections = caches.keySet().iterator();
+
+        while (connections.hasNext()) {
+            Connection conn = connections.next();
+            try {
+                if (conn.isClosed()) {
+                    connections.remove();
+                }
+            } catch (SQLException e) {
+                connections.remove();
+            }
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            logger.debug("Failed to close evicted statement", e);
+        }
+    }
+}
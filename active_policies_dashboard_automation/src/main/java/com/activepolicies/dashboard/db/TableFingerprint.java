@@ -0,0 +1,132 @@
+package com.activepolicies.dashboard.db;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Order-independent fingerprint of a table or filtered subset: the row count and the
+ * sum, modulo 2^64, of a 64-bit hash of each row's key columns. Any insert, delete or
+ * change to a hashed column changes the fingerprint, whatever order rows are read in.
+ */
+public class TableFingerprint {
+    private final String table;
+    private final String filter;
+    private final long rowCount;
+    private final long hashSum;
+
+    /**
+     * Constructor
+     * @param table Table name
+     * @param filter SQL condition the rows were selected with, or null for the whole table
+     * @param rowCount Number of rows
+     * @param hashSum Sum of the row hashes modulo 2^64
+     */
+    public TableFingerprint(String table, String filter, long rowCount, long hashSum) {
+        this.table = table;
+        this.filter = filter;
+        this.rowCount = rowCount;
+        this.hashSum = hashSum;
+    }
+
+    /**
+     * Parses a fingerprint value produced by getValue
+     * @param table Table name
+     * @param filter SQL condition, or null
+     * @param value Fingerprint value
+     * @return Fingerprint
+     */
+    public static TableFingerprint parse(String table, String filter, String value) {
+        int separator = value.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid fingerprint value: " + value);
+        }
+        return new TableFingerprint(table, filter, Long.parseLong(value.substring(0, separator)),
+                Long.parseUnsignedLong(value.substring(separator + 1), 16));
+    }
+
+    /**
+     * Computes a row hash client-side, matching DatabaseDialect.rowHashExpression
+     * @param values Column values as the database renders them as text, null for NULL
+     * @return Row hash
+     */
+    public static long rowHash(String... values) {
+        StringBuilder row = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append('|');
+            }
+            if (values[i] == null) {
+                row.append('N');
+            } else {
+                row.append(values[i].length()).append(':').append(values[i]);
+            }
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(row.toString().getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest, 0, Long.BYTES).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Converts a hash or hash sum read from the database to its low 64 bits
+     * @param value Number returned by JDBC, e.g. a BIGINT, unsigned BIGINT or DECIMAL sum
+     * @return Hash, 0 for null
+     */
+    public static long toHash(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toBigInteger().longValue();
+        }
+        if (value instanceof BigInteger) {
+            return ((BigInteger) value).longValue();
+        }
+        return ((Number) value).longValue();
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getHashSum() {
+        return hashSum;
+    }
+
+    /**
+     * Gets the fingerprint as text for storing, e.g. 10:3f2a9c0d1b4e5f60
+     * @return Row count and hex hash sum
+     */
+    public String getValue() {
+        return rowCount + ":" + String.format("%016x", hashSum);
+    }
+
+    /**
+     * Checks if another fingerprint has the same rows, regardless of table or filter text
+     * @param other Fingerprint to compare
+     * @return true if row count and hash sum match
+     */
+    public boolean matches(TableFingerprint other) {
+        return other != null && rowCount == other.rowCount && hashSum == other.hashSum;
+    }
+
+    @Override
+    public String toString() {
+        return table + (filter == null ? "" : " WHERE " + filter) + " [" + getValue() + "]";
+    }
+}
@@ -1,6 +1,9 @@
 package com.activepolicies.dashboard.pages;
 
+import com.activepolicies.dashboard.api.ApiClient;
 import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -9,7 +12,7 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
  * Page object for the login page
  */
 public class LoginPage extends BasePage {
-
+    
     private By usernameField = By.id("username");
     private By passwordField = By.id("password");
     private By loginButton = By.id("login-button");
@@ -73,14 +76,43 @@ public class LoginPage extends BasePage {
     }
     
     /**
-     * Login with default admin credentials
+     * Login with default admin credentials, through the form or, when
+     * ui.session.injection is set, by injecting a cached API token
      */
     public DashboardPage loginAsAdmin() {
         String adminUsername = config.getProperty("admin.username");
         String adminPassword = config.getProperty("admin.password");
+        if (config.getBooleanProperty("ui.session.injection")) {
+            return loginWithSession(adminUsername, adminPassword);
+        }
         return login(adminUsername, adminPassword);
     }
     
+    /**
+     * Login by injecting a token from the shared TokenCache into the browser session,
+     * skipping the login form. The token is stored under ui.session.token.key in
+     * localStorage or, if ui.session.token.storage is cookie, in a cookie.
+     */
+    public DashboardPage loginWithSession(String username, String password) {
+        logger.info("Injecting session token for username: " + username);
+        String token = new ApiClient().authenticate(username, password);
+        String baseUrl = config.getProperty("base.url");
+        String tokenKey = config.getProperty("ui.session.token.key", "authToken");
+        
+        // Storage is per origin, so open a page of the application first
+        navigateToLoginPage();
+        if ("cookie".equalsIgnoreCase(config.getProperty("ui.session.token.storage", "localStorage"))) {
+            driver.manage().addCookie(new Cookie(tokenKey, token));
+        } else {
+            ((JavascriptExecutor) driver).executeScript("window.localStorage.setItem(arguments[0], arguments[1]);",
+                    tokenKey, token);
+        }
+        
+        driver.get(baseUrl + config.getProperty("ui.session.landing.path", "/dashboard"));
+        wait.until(ExpectedConditions.invisibilityOfElementLocated(loadingSpinner));
+        return new DashboardPage(driver);
+    }
+    
     /**
      * Check if error message is displayed
      */
@@ -0,0 +1,49 @@
+package com.activepolicies.dashboard.utils;
+
+/**
+ * Point-in-time hit/miss counters for an in-process cache
+ */
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    /**
+     * Constructor
+     * @param hits Lookups served from the cache
+     * @param misses Lookups that had to go to the source
+     * @param evictions Entries dropped for size, age or invalidation
+     */
+    public CacheStats(long hits, long misses, long evictions) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the fraction of lookups served from the cache
+     * @return Hit ratio between 0 and 1, or 0 if there were no lookups
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, evictions=%d, hitRatio=%.1f%%",
+                hits, misses, evictions, getHitRatio() * 100);
+    }
+}
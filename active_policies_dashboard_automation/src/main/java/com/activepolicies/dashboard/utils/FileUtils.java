@@ -1,6 +1,7 @@
 package com.activepolicies.dashboard.utils;
 
 import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvException;
 
 import java.io.*;
 import java.nio.file.*;
@@ -35,6 +36,8 @@ public class FileUtils {
     public static List<String[]> readCsv(File file) throws IOException {
         try (CSVReader reader = new CSVReader(new FileReader(file))) {
             return reader.readAll();
+        } catch (CsvException e) {
+            throw new IOException("Failed to parse CSV file: " + file, e);
         }
     }
 }
@@ -0,0 +1,508 @@
+package com.activepolicies.dashboard.utils;
+
+import com.activepolicies.dashboard.api.PolicyApiService;
+import com.activepolicies.dashboard.constants.PolicyTypes;
+import com.activepolicies.dashboard.db.PolicyDatabaseService;
+import com.github.javafaker.Faker;
+import com.opencsv.CSVWriter;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic generator of realistic synthetic policies. Policies are produced
+ * in fixed-size chunks, each from its own random seed derived from the generator
+ * seed and the chunk number, so chunks can be generated in parallel across cores
+ * while the output stays identical for a given seed. Chunks are handed to a
+ * PolicySink in order; sinks are provided for CSV files, batched database
+ * inserts and the policies API.
+ *
+ * Generated policies use the policy data keys accepted by PolicyDatabaseService
+ * and PolicyApiService (type, startDate, endDate, premium, customerName,
+ * customerEmail, status) plus policyId.
+ */
+public class PolicyDataGenerator {
+    private static final Logger logger = LogManager.getLogger(PolicyDataGenerator.class);
+    private static final String[] CSV_HEADER =
+            {"PolicyID", "PolicyType", "StartDate", "EndDate", "Premium", "CustomerName", "CustomerEmail", "Status"};
+    // Faker instances are slow to create, so they are reused across chunks, threads and generators
+    private static final Queue<SeededFaker> fakers = new ConcurrentLinkedQueue<>();
+
+    private final long seed;
+    private final int chunkSize;
+    private final int threads;
+    private final long firstPolicyNumber;
+    private final String[] types;
+    private final double[] typeWeights;
+    private final Map<String, Double> medianPremiums;
+    private final double premiumSigma;
+    private final LocalDate startDateFrom;
+    private final int startDateSpanDays;
+    private final Map<String, int[]> termMonths;
+    private final String[] statuses;
+    private final double[] statusWeights;
+
+    private PolicyDataGenerator(Builder builder) {
+        this.seed = builder.seed;
+        this.chunkSize = builder.chunkSize;
+        this.threads = builder.threads;
+        this.firstPolicyNumber = builder.firstPolicyNumber;
+        this.types = builder.typeWeights.keySet().toArray(new String[0]);
+        this.typeWeights = cumulativeWeights(builder.typeWeights);
+        this.medianPremiums = new HashMap<>(builder.medianPremiums);
+        this.premiumSigma = builder.premiumSigma;
+        this.startDateFrom = builder.startDateFrom;
+        this.startDateSpanDays = (int) (builder.startDateTo.toEpochDay() - builder.startDateFrom.toEpochDay()) + 1;
+        this.termMonths = new HashMap<>(builder.termMonths);
+        this.statuses = builder.statusWeights.keySet().toArray(new String[0]);
+        this.statusWeights = cumulativeWeights(builder.statusWeights);
+    }
+
+    /**
+     * Creates a generator builder with defaults modelled on the policy test data
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Generates policies into memory. Intended for small data sets; use a sink for large ones.
+     * @param count Number of policies
+     * @return Generated policies
+     */
+    public List<Map<String, Object>> generate(long count) {
+        List<Map<String, Object>> policies = new ArrayList<>();
+
+        try {
+            generate(count, policies::addAll);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to generate policies", e);
+        }
+        return policies;
+    }
+
+    /**
+     * Generates policies in parallel and writes them to the sink in chunk order.
+     * At most twice the thread count of chunks are held in memory at once.
+     * The sink is not closed.
+     * @param count Number of policies
+     * @param sink Destination for generated chunks
+     * @return Number of policies written
+     * @throws Exception if the sink fails
+     */
+    public long generate(long count, PolicySink sink) throws Exception {
+        long start = System.nanoTime();
+        long chunkCount = (count + chunkSize - 1) / chunkSize;
+        int maxInFlight = threads * 2;
+
+        ExecutorService executor = TaskExecutors.newExecutor("policy-generator", threads);
+        Deque<Future<List<Map<String, Object>>>> inFlight = new ArrayDeque<>();
+        long nextChunk = 0;
+        long written = 0;
+
+        try {
+            while (nextChunk < chunkCount || !inFlight.isEmpty()) {
+                while (nextChunk < chunkCount && inFlight.size() < maxInFlight) {
+                    long chunkIndex = nextChunk++;
+                    int size = (int) Math.min(chunkSize, count - chunkIndex * chunkSize);
+                    inFlight.add(executor.submit(() -> generateChunk(chunkIndex, size)));
+                }
+
+                List<Map<String, Object>> chunk = awaitChunk(inFlight.poll());
+                sink.write(chunk);
+                written += chunk.size();
+            }
+        } finally {
+            for (Future<List<Map<String, Object>>> future : inFlight) {
+                future.cancel(true);
+            }
+            executor.shutdownNow();
+        }
+
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("Generated {} policies in {} ms ({} policies/s, seed {})",
+                written, elapsedMillis, written * 1000 / elapsedMillis, seed);
+        return written;
+    }
+
+    /**
+     * Generates one chunk. The same chunk index always yields the same policies.
+     * @param chunkIndex Chunk number, starting at 0
+     * @param size Number of policies in the chunk
+     * @return Generated policies
+     */
+    public List<Map<String, Object>> generateChunk(long chunkIndex, int size) {
+        SeededFaker seeded = fakers.poll();
+        if (seeded == null) {
+            seeded = new SeededFaker();
+        }
+
+        try {
+            seeded.random.setSeed(chunkSeed(chunkIndex));
+            return generateChunk(chunkIndex, size, seeded.random, seeded.faker);
+        } finally {
+            fakers.offer(seeded);
+        }
+    }
+
+    private List<Map<String, Object>> generateChunk(long chunkIndex, int size, Random random, Faker faker) {
+        List<Map<String, Object>> policies = new ArrayList<>(size);
+        long policyNumber = firstPolicyNumber + chunkIndex * chunkSize;
+
+        for (int i = 0; i < size; i++, policyNumber++) {
+            String type = types[pick(typeWeights, random)];
+            LocalDate startDate = startDateFrom.plusDays(random.nextInt(startDateSpanDays));
+            int[] terms = termMonths.getOrDefault(type, termMonths.get(null));
+            LocalDate endDate = startDate.plusMonths(terms[random.nextInt(terms.length)]);
+            double median = medianPremiums.getOrDefault(type, 1000.0);
+            double premium = Math.round(median * Math.exp(premiumSigma * random.nextGaussian()) * 100) / 100.0;
+
+            String customerName;
+            String customerEmail;
+            if (PolicyTypes.COMMERCIAL.equals(type)) {
+                customerName = faker.company().name();
+                customerEmail = "contact" + policyNumber + "@" + emailPart(customerName) + ".example.com";
+            } else {
+                String firstName = faker.name().firstName();
+                String lastName = faker.name().lastName();
+                customerName = firstName + " " + lastName;
+                customerEmail = emailPart(firstName) + "." + emailPart(lastName) + policyNumber + "@example.com";
+            }
+
+            Map<String, Object> policy = new LinkedHashMap<>();
+            policy.put("policyId", "POL-" + policyNumber);
+            policy.put("type", type);
+            policy.put("startDate", startDate.toString());
+            policy.put("endDate", endDate.toString());
+            policy.put("premium", premium);
+            policy.put("customerName", customerName);
+            policy.put("customerEmail", customerEmail);
+            policy.put("status", statuses[pick(statusWeights, random)]);
+            policies.add(policy);
+        }
+        return policies;
+    }
+
+    /**
+     * Creates a sink writing policies to a CSV file in the policy_test_data.csv layout.
+     * The file is written when the sink is closed.
+     * @param file CSV file
+     * @return CSV sink
+     * @throws IOException if the file cannot be created
+     */
+    public static PolicySink csvSink(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        BufferedWriter fileWriter = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        CSVWriter writer = new CSVWriter(fileWriter);
+        writer.writeNext(CSV_HEADER, false);
+
+        return new PolicySink() {
+            @Override
+            public void write(List<Map<String, Object>> policies) {
+                for (Map<String, Object> policy : policies) {
+                    writer.writeNext(new String[]{
+                        String.valueOf(policy.get("policyId")),
+                        String.valueOf(policy.get("type")),
+                        String.valueOf(policy.get("startDate")),
+                        String.valueOf(policy.get("endDate")),
+                        String.format(Locale.ROOT, "%.2f", (Double) policy.get("premium")),
+                        String.valueOf(policy.get("customerName")),
+                        String.valueOf(policy.get("customerEmail")),
+                        String.valueOf(policy.get("status"))
+                    }, false);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
+    }
+
+    /**
+     * Creates a sink inserting each chunk through PolicyDatabaseService.createPolicies
+     * in JDBC batches. The database assigns policy IDs.
+     * @param policyDbService Policy database service
+     * @param batchSize Rows per batch and transaction
+     * @return Database sink
+     */
+    public static PolicySink databaseSink(PolicyDatabaseService policyDbService, int batchSize) {
+        return policies -> policyDbService.createPolicies(policies, batchSize);
+    }
+
+    /**
+     * Creates a sink posting each policy to the policies API
+     * @param policyApiService Policy API service
+     * @return API sink
+     */
+    public static PolicySink apiSink(PolicyApiService policyApiService) {
+        return policies -> {
+            for (Map<String, Object> policy : policies) {
+                Response response = policyApiService.createPolicy(policy);
+                if (response.getStatusCode() >= 300) {
+                    throw new IllegalStateException("Failed to create policy " + policy.get("policyId") +
+                            ": HTTP " + response.getStatusCode());
+                }
+            }
+        };
+    }
+
+    private List<Map<String, Object>> awaitChunk(Future<List<Map<String, Object>>> chunk) throws Exception {
+        try {
+            return chunk.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private long chunkSeed(long chunkIndex) {
+        // SplitMix64 finalizer, so neighbouring chunks get unrelated seeds
+        long z = seed + (chunkIndex + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int pick(double[] cumulativeWeights, Random random) {
+        double value = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, value);
+        return Math.min(index < 0 ? -index - 1 : index + 1, cumulativeWeights.length - 1);
+    }
+
+    private static double[] cumulativeWeights(Map<String, Double> weights) {
+        double[] cumulative = new double[weights.size()];
+        double total = 0;
+        int i = 0;
+
+        for (double weight : weights.values()) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative: " + weights);
+            }
+            total += weight;
+            cumulative[i++] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive: " + weights);
+        }
+        return cumulative;
+    }
+
+    private static String emailPart(String text) {
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+
+    /**
+     * Destination for generated policy chunks
+     */
+    @FunctionalInterface
+    public interface PolicySink extends AutoCloseable {
+        /**
+         * Writes a chunk of policies
+         * @param policies Policies in generation order
+         * @throws Exception if writing fails
+         */
+        void write(List<Map<String, Object>> policies) throws Exception;
+
+        /**
+         * Flushes and releases the sink. Does nothing by default.
+         * @throws IOException if the sink cannot be closed
+         */
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    /**
+     * Per-thread Faker sharing a Random that is reseeded for every chunk
+     */
+    private static class SeededFaker {
+        private final Random random = new Random();
+        private final Faker faker = new Faker(Locale.ENGLISH, random);
+    }
+
+    /**
+     * Builder for PolicyDataGenerator
+     */
+    public static class Builder {
+        private long seed = 42;
+        private int chunkSize = 10000;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private long firstPolicyNumber = 1;
+        private final Map<String, Double> typeWeights = new LinkedHashMap<>();
+        private final Map<String, Double> medianPremiums = new HashMap<>();
+        private double premiumSigma = 0.35;
+        private LocalDate startDateFrom = LocalDate.of(2023, 1, 1);
+        private LocalDate startDateTo = LocalDate.of(2024, 12, 31);
+        private final Map<String, int[]> termMonths = new HashMap<>();
+        private final Map<String, Double> statusWeights = new LinkedHashMap<>();
+
+        private Builder() {
+            for (String type : PolicyTypes.TYPES) {
+                typeWeights.put(type, 1.0);
+            }
+            medianPremiums.put(PolicyTypes.AUTO, 1150.0);
+            medianPremiums.put(PolicyTypes.HOME, 880.0);
+            medianPremiums.put(PolicyTypes.LIFE, 1650.0);
+            medianPremiums.put(PolicyTypes.HEALTH, 2100.0);
+            medianPremiums.put(PolicyTypes.COMMERCIAL, 3500.0);
+            medianPremiums.put(PolicyTypes.TRAVEL, 150.0);
+            medianPremiums.put(PolicyTypes.PET, 450.0);
+            termMonths.put(null, new int[]{12});
+            termMonths.put(PolicyTypes.TRAVEL, new int[]{1});
+            statusWeights.put("Active", 0.85);
+            statusWeights.put("Expired", 0.10);
+            statusWeights.put("Cancelled", 0.05);
+        }
+
+        /**
+         * Sets the random seed. The same seed and settings always generate the same policies.
+         * @param seed Seed
+         * @return Builder
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets policies per chunk, the unit of parallel work
+         * @param chunkSize Policies per chunk
+         * @return Builder
+         */
+        public Builder chunkSize(int chunkSize) {
+            if (chunkSize < 1) {
+                throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of generator threads. Does not affect the generated data.
+         * @param threads Thread count
+         * @return Builder
+         */
+        public Builder threads(int threads) {
+            this.threads = Math.max(1, threads);
+            return this;
+        }
+
+        /**
+         * Sets the number of the first policy; IDs are POL-number
+         * @param firstPolicyNumber First policy number
+         * @return Builder
+         */
+        public Builder firstPolicyNumber(long firstPolicyNumber) {
+            this.firstPolicyNumber = firstPolicyNumber;
+            return this;
+        }
+
+        /**
+         * Sets the relative frequency of a policy type; 0 excludes it
+         * @param policyType Policy type
+         * @param weight Relative weight
+         * @return Builder
+         */
+        public Builder typeWeight(String policyType, double weight) {
+            typeWeights.put(policyType, weight);
+            return this;
+        }
+
+        /**
+         * Sets the median premium of a policy type. Premiums are log-normally distributed around it.
+         * @param policyType Policy type
+         * @param medianPremium Median premium
+         * @return Builder
+         */
+        public Builder medianPremium(String policyType, double medianPremium) {
+            medianPremiums.put(policyType, medianPremium);
+            return this;
+        }
+
+        /**
+         * Sets the spread of the premium distribution
+         * @param sigma Standard deviation of the log of the premium
+         * @return Builder
+         */
+        public Builder premiumSigma(double sigma) {
+            this.premiumSigma = sigma;
+            return this;
+        }
+
+        /**
+         * Sets the range start dates are drawn from uniformly
+         * @param from First start date
+         * @param to Last start date
+         * @return Builder
+         */
+        public Builder startDateRange(LocalDate from, LocalDate to) {
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("Start date range ends before it begins: " + from + " to " + to);
+            }
+            this.startDateFrom = from;
+            this.startDateTo = to;
+            return this;
+        }
+
+        /**
+         * Sets the policy terms of a type, picked uniformly; null sets the default for all types
+         * @param policyType Policy type, or null
+         * @param months Term lengths in months
+         * @return Builder
+         */
+        public Builder termMonths(String policyType, int... months) {
+            if (months.length == 0) {
+                throw new IllegalArgumentException("At least one term is required");
+            }
+            termMonths.put(policyType, months.clone());
+            return this;
+        }
+
+        /**
+         * Sets the relative frequency of a status
+         * @param status Status
+         * @param weight Relative weight
+         * @return Builder
+         */
+        public Builder statusWeight(String status, double weight) {
+            statusWeights.put(status, weight);
+            return this;
+        }
+
+        /**
+         * Builds the generator
+         * @return Policy data generator
+         */
+        public PolicyDataGenerator build() {
+            return new PolicyDataGenerator(this);
+        }
+    }
+}
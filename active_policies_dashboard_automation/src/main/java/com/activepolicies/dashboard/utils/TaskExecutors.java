@@ -0,0 +1,91 @@
+package com.activepolicies.dashboard.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates executors for blocking work such as JDBC and HTTP calls. On a JDK with
+ * virtual threads (21+) a virtual-thread-per-task executor is used, looked up
+ * reflectively so the framework still compiles and runs on Java 11, where a
+ * fixed pool of daemon platform threads is used instead. Virtual thread executors
+ * are unbounded, so callers that need a parallelism limit must apply their own.
+ */
+public class TaskExecutors {
+    private static final Logger logger = LogManager.getLogger(TaskExecutors.class);
+    private static final Method VIRTUAL_EXECUTOR_FACTORY = findVirtualExecutorFactory();
+
+    private TaskExecutors() {
+    }
+
+    /**
+     * Checks if the running JDK supports virtual threads
+     * @return true if newExecutor returns virtual-thread-per-task executors
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VIRTUAL_EXECUTOR_FACTORY != null;
+    }
+
+    /**
+     * Creates an executor for blocking tasks. The caller must shut it down.
+     * @param name Thread name prefix used for platform threads
+     * @param maxThreads Pool size used when virtual threads are not available
+     * @return Executor service
+     */
+    public static ExecutorService newExecutor(String name, int maxThreads) {
+        if (VIRTUAL_EXECUTOR_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Failed to create virtual thread executor, using platform threads", e);
+            }
+        }
+        return Executors.newFixedThreadPool(Math.max(1, maxThreads), daemonThreadFactory(name));
+    }
+
+    /**
+     * Creates an executor for blocking tasks whose concurrency the callers already limit,
+     * e.g. with their own permits. Falls back to a cached pool of daemon platform threads,
+     * so the pool never adds a limit of its own. The caller must shut it down.
+     * @param name Thread name prefix used for platform threads
+     * @return Executor service
+     */
+    public static ExecutorService newElasticExecutor(String name) {
+        if (VIRTUAL_EXECUTOR_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Failed to create virtual thread executor, using platform threads", e);
+            }
+        }
+        return Executors.newCachedThreadPool(daemonThreadFactory(name));
+    }
+
+    /**
+     * Creates a factory for named daemon threads
+     * @param name Thread name prefix
+     * @return Thread factory
+     */
+    public static ThreadFactory daemonThreadFactory(String name) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Method findVirtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+-- Schema of the policies table as used by PolicyDatabaseService.
+-- Loaded into the embedded database; kept MySQL-compatible apart from policy_id.
+-- policy_id takes its default from a sequence rather than AUTO_INCREMENT: in MySQL mode
+-- H2 writes every identity value back to the identity sequence, and concurrent inserts
+-- can move it backwards and hand out duplicate IDs.
+CREATE SEQUENCE IF NOT EXISTS policies_id_seq;
+
+CREATE TABLE IF NOT EXISTS policies (
+    policy_id BIGINT DEFAULT NEXT VALUE FOR policies_id_seq PRIMARY KEY,
+    policy_type VARCHAR(32) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    premium DECIMAL(12, 2) NOT NULL,
+    customer_name VARCHAR(255) NOT NULL,
+    customer_email VARCHAR(255),
+    status VARCHAR(32) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_policies_type ON policies (policy_type);
+
+CREATE INDEX IF NOT EXISTS idx_policies_dates ON policies (start_date, end_date);
@@ -95,7 +95,7 @@ public class ExportTests extends BaseTest {
     }
     
     @Test
-    @Severity(SeverityLevel.HIGH)
+    @Severity(SeverityLevel.CRITICAL)
     @Description("Verify filtered data export to CSV")
     @Story("Filtered CSV Export")
     public void testFilteredExportToCsv() throws Exception {
@@ -145,7 +145,7 @@ public class VisualTests extends BaseTest {
     }
     
     @Test
-    @Severity(SeverityLevel.LOW)
+    @Severity(SeverityLevel.MINOR)
     @Description("Verify visual changes when filtering by policy type")
     @Story("Filtered View Visual")
     public void testFilteredViewVisual() throws Exception {
@@ -0,0 +1,487 @@
+package com.activepolicies.dashboard.tests.api;
+
+import com.activepolicies.dashboard.api.ApiClient;
+import com.activepolicies.dashboard.api.PolicyApiService;
+import com.activepolicies.dashboard.api.PolicyApiStub;
+import com.activepolicies.dashboard.api.PolicyLoadGenerator;
+import com.activepolicies.dashboard.api.TokenCache;
+import com.activepolicies.dashboard.constants.PolicyTypes;
+import com.sun.net.httpserver.HttpServer;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.path.json.config.JsonPathConfig;
+import io.restassured.response.Response;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for the API client layer itself, run against local HTTP servers
+ */
+@Feature("API Client")
+public class ApiClientTests extends BaseApiTest {
+    
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify that clients for different environments can be used concurrently over pooled keep-alive connections")
+    @Story("Concurrent API Clients")
+    public void testConcurrentClientsForDifferentEnvironments() throws Exception {
+        int threads = 8;
+        int requestsPerThread = 20;
+        
+        Set<Integer> connectionsA = ConcurrentHashMap.newKeySet();
+        Set<Integer> connectionsB = ConcurrentHashMap.newKeySet();
+        HttpServer serverA = startEchoServer("env-a", connectionsA);
+        HttpServer serverB = startEchoServer("env-b", connectionsB);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        
+        try {
+            ApiClient clientA = new ApiClient("http://127.0.0.1:" + serverA.getAddress().getPort() + "/api");
+            ApiClient clientB = new ApiClient("http://127.0.0.1:" + serverB.getAddress().getPort() + "/api");
+            clientA.setToken("token-a");
+            clientB.setToken("token-b");
+            
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        boolean useA = i % 2 == 0;
+                        Response response = (useA ? clientA : clientB).get("/echo");
+                        
+                        Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
+                        Assert.assertEquals(response.jsonPath().getString("server"), useA ? "env-a" : "env-b",
+                            "Request should reach its own client's environment");
+                        Assert.assertEquals(response.jsonPath().getString("authorization"),
+                            useA ? "Bearer token-a" : "Bearer token-b", "Request should carry its own client's token");
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            
+            int requestsPerServer = threads * requestsPerThread / 2;
+            int maxPerRoute = Integer.parseInt(config.getProperty("api.pool.max.per.route", "10"));
+            logger.info("Connections opened: env-a {}, env-b {} for {} requests each",
+                    connectionsA.size(), connectionsB.size(), requestsPerServer);
+            
+            Assert.assertTrue(connectionsA.size() <= maxPerRoute && connectionsB.size() <= maxPerRoute,
+                "Each environment should use at most " + maxPerRoute + " pooled connections");
+        } finally {
+            executor.shutdownNow();
+            stopServer(serverA);
+            stopServer(serverB);
+        }
+    }
+    
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify that concurrent logins share one request and tokens are refreshed in the background before expiry")
+    @Story("Shared Token Cache")
+    public void testSharedTokenCache() throws Exception {
+        int threads = 16;
+        AtomicInteger logins = new AtomicInteger();
+        HttpServer server = startLoginServer(logins, 3);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        
+        try {
+            String baseUri = "http://127.0.0.1:" + server.getAddress().getPort() + "/api";
+            CountDownLatch start = new CountDownLatch(1);
+            
+            // Parallel classes authenticating the same user at once
+            List<Future<String>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return new ApiClient(baseUri).authenticate("soak.user", "secret");
+                }));
+            }
+            start.countDown();
+            
+            String firstToken = futures.get(0).get();
+            for (Future<String> future : futures) {
+                Assert.assertEquals(future.get(), firstToken, "All callers should get the same token");
+            }
+            Assert.assertEquals(logins.get(), 1, "Concurrent callers should share one login request");
+            Assert.assertTrue(TokenCache.parseExpiry(firstToken) > System.currentTimeMillis(),
+                "Expiry should be read from the JWT exp claim");
+            
+            // A used token is refreshed in the background before it expires
+            Assert.assertEquals(new ApiClient(baseUri).authenticate("soak.user", "secret"), firstToken,
+                "Cached token should be reused");
+            long deadline = System.currentTimeMillis() + 5000;
+            while (logins.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertEquals(logins.get(), 2, "Token should be refreshed once before expiry");
+            
+            String refreshedToken = new ApiClient(baseUri).authenticate("soak.user", "secret");
+            Assert.assertNotEquals(refreshedToken, firstToken, "Callers should get the refreshed token");
+            Assert.assertEquals(logins.get(), 2, "Refreshed token should be served from the cache");
+            logger.info("Token cache: {}", TokenCache.getInstance().getStats());
+        } finally {
+            executor.shutdownNow();
+            stopServer(server);
+        }
+    }
+    
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Verify that a long-lived client keeps sending valid tokens past the expiry of its first token")
+    @Story("Shared Token Cache")
+    public void testClientFollowsTokenRefresh() throws Exception {
+        // The stub rejects expired tokens, so a client holding on to its first token would get 401s after 3 s
+        try (PolicyApiStub stub = PolicyApiStub.builder()
+                .credentials("refresh.user", "secret")
+                .tokenLifetime(Duration.ofSeconds(3))
+                .build()
+                .start()) {
+            ApiClient client = new ApiClient(stub.getBaseUri());
+            String firstToken = client.authenticate("refresh.user", "secret");
+            long firstExpiry = TokenCache.parseExpiry(firstToken);
+            
+            int requests = 0;
+            int requestsAfterExpiry = 0;
+            while (System.currentTimeMillis() < firstExpiry + 3000) {
+                requestsAfterExpiry += System.currentTimeMillis() > firstExpiry ? 1 : 0;
+                Response response = client.get("/policies/statistics");
+                Assert.assertEquals(response.getStatusCode(), 200,
+                    "Request " + requests + " should be sent with a valid token");
+                requests++;
+                Thread.sleep(200);
+            }
+            
+            Assert.assertTrue(requestsAfterExpiry > 0, "Requests should continue past the first token's expiry");
+            Assert.assertNotEquals(client.authenticate("refresh.user", "secret"), firstToken,
+                "The client should have moved on to a refreshed token");
+        }
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that bulk get by ID fans out within the concurrency limit and keeps order and per-item errors")
+    @Story("Concurrent Policy Requests")
+    public void testGetPoliciesByIds() throws Exception {
+        int maxConcurrent = 4;
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/policies/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            
+            String policyId = exchange.getRequestURI().getPath().substring("/api/policies/".length());
+            boolean found = !policyId.startsWith("missing");
+            byte[] body = (found ? "{\"id\":\"" + policyId + "\"}" : "{\"error\":\"Not found\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(found ? 200 : 404, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(16));
+        server.start();
+        
+        try {
+            ApiClient client = new ApiClient("http://127.0.0.1:" + server.getAddress().getPort() + "/api");
+            PolicyApiService service = new PolicyApiService(client, maxConcurrent);
+            List<String> policyIds = Arrays.asList("P-12", "P-3", "P-7", "missing-1", "P-1", "P-9", "P-4", "P-11",
+                    "P-2", "missing-2", "P-5", "P-8");
+            
+            long start = System.nanoTime();
+            List<PolicyApiService.ItemResult<String>> results = service.getPoliciesByIds(policyIds);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            logger.info("Fetched {} policies in {} ms, at most {} in flight", results.size(), elapsedMillis, maxInFlight.get());
+            
+            Assert.assertEquals(results.size(), policyIds.size(), "There should be one result per ID");
+            for (int i = 0; i < policyIds.size(); i++) {
+                PolicyApiService.ItemResult<String> result = results.get(i);
+                Assert.assertEquals(result.getKey(), policyIds.get(i), "Results should be in input order");
+                
+                if (policyIds.get(i).startsWith("missing")) {
+                    Assert.assertFalse(result.isSuccess(), "Missing policy should fail on its own: " + result);
+                    Assert.assertEquals(result.getResponse().getStatusCode(), 404, "Missing policy should return 404");
+                } else {
+                    Assert.assertTrue(result.isSuccess(), "Policy should be found: " + result);
+                    Assert.assertEquals(result.getResponse().jsonPath().getString("id"), policyIds.get(i),
+                        "Response should belong to its policy ID");
+                }
+            }
+            Assert.assertTrue(maxInFlight.get() <= maxConcurrent, "At most " + maxConcurrent + " requests should be in flight");
+            Assert.assertTrue(elapsedMillis < policyIds.size() * 100L, "Requests should run concurrently");
+        } finally {
+            stopServer(server);
+        }
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that each service is bound only by its own concurrency limit, not by other services or the shared executor")
+    @Story("Concurrent Policy Requests")
+    public void testServiceConcurrencyLimitsAreIndependent() throws Exception {
+        try (PolicyApiStub stub = PolicyApiStub.builder()
+                .requireAuth(false)
+                .seedGenerated(40)
+                .latency(Duration.ofMillis(500), Duration.ZERO)
+                .build()
+                .start()) {
+            ApiClient client = new ApiClient(stub.getBaseUri());
+            PolicyApiService serialService = new PolicyApiService(client, 1);
+            PolicyApiService wideService = new PolicyApiService(client, 16);
+            
+            // A long queue on the serial service must not hold up the other service
+            List<CompletableFuture<Response>> serialRequests = new ArrayList<>();
+            for (int i = 1; i <= 20; i++) {
+                serialRequests.add(serialService.getPolicyByIdAsync("POL-" + i));
+            }
+            
+            long start = System.nanoTime();
+            List<String> policyIds = new ArrayList<>();
+            for (int i = 21; i <= 36; i++) {
+                policyIds.add("POL-" + i);
+            }
+            List<PolicyApiService.ItemResult<String>> results = wideService.getPoliciesByIds(policyIds);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            logger.info("Fetched {} policies in {} ms next to a queue of {} serial requests",
+                results.size(), elapsedMillis, serialRequests.size());
+            
+            Assert.assertTrue(results.stream().allMatch(PolicyApiService.ItemResult::isSuccess), "All policies should be found");
+            // 16 requests of 500 ms take one round at a limit of 16; two or more if capped by the executor or starved
+            Assert.assertTrue(elapsedMillis < 2500, "16 requests should run at once, took " + elapsedMillis + " ms");
+            
+            for (CompletableFuture<Response> request : serialRequests) {
+                request.cancel(false);
+            }
+        }
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that the load generator offers the target request rate and reports latency per scenario")
+    @Story("Policy API Load")
+    public void testPolicyApiLoad() throws Exception {
+        try (PolicyApiStub stub = PolicyApiStub.builder()
+                .credentials("load.user", "secret")
+                .seedGenerated(20)
+                .latency(Duration.ofMillis(5), Duration.ZERO)
+                .build()
+                .start()) {
+            ApiClient client = new ApiClient(stub.getBaseUri());
+            client.authenticate("load.user", "secret");
+            PolicyLoadGenerator.LoadReport report = PolicyLoadGenerator.builder(new PolicyApiService(client))
+                    .rate(100)
+                    .duration(Duration.ofSeconds(2))
+                    .seed(7)
+                    .build()
+                    .run();
+            
+            Path reportDir = Paths.get(config.getProperty("api.load.report.dir", "target/load-reports"));
+            report.writeCsv(reportDir.resolve("policy-api-load.csv"));
+            report.writeJson(reportDir.resolve("policy-api-load.json"));
+            
+            Assert.assertTrue(report.getTotalRequests() >= 140 && report.getTotalRequests() <= 260,
+                "About 200 requests should arrive at 100 req/s over 2 s, got " + report.getTotalRequests());
+            Assert.assertEquals(report.getTotalErrors(), 0, "No request should fail:\n" + report.formatSummary());
+            Assert.assertEquals(report.getTotalDropped(), 0, "No arrival should be dropped");
+            Assert.assertTrue(report.getScenario(PolicyLoadGenerator.Scenario.GET_BY_ID).getCount() > 0,
+                "Reads by ID should be part of the mix");
+            Assert.assertTrue(Files.size(reportDir.resolve("policy-api-load.json")) > 0, "JSON report should be written");
+            Assert.assertEquals(stub.getPolicyCount(), 20, "Policies created during the run should be cleaned up");
+        }
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that the policy API stub filters policies and injects the same errors for the same seed")
+    @Story("Policy API Stub")
+    public void testPolicyApiStub() throws Exception {
+        String seedFile = config.getProperty("test.data.dir", "src/test/resources/test-data") + "/policy_test_data.csv";
+        int[] injectedErrors = new int[2];
+        
+        for (int run = 0; run < injectedErrors.length; run++) {
+            try (PolicyApiStub stub = PolicyApiStub.builder()
+                    .credentials("stub.user", "secret")
+                    .seedFromCsv(seedFile)
+                    .seed(11)
+                    .build()
+                    .start()) {
+                ApiClient client = new ApiClient(stub.getBaseUri());
+                Assert.assertEquals(client.get("/policies").getStatusCode(), 401, "Policies should require a token");
+                client.authenticate("stub.user", "secret");
+                
+                Response autoPolicies = client.get("/policies", Map.of("type", "Auto"));
+                Assert.assertEquals(autoPolicies.getStatusCode(), 200);
+                List<String> types = autoPolicies.jsonPath().getList("type");
+                Assert.assertFalse(types.isEmpty(), "Seed data should contain Auto policies");
+                Assert.assertTrue(types.stream().allMatch("Auto"::equals), "Only Auto policies should be returned");
+                
+                Response inRange = client.get("/policies", Map.of("startDate", "2024-01-01", "endDate", "2025-12-31"));
+                for (Map<String, Object> policy : inRange.jsonPath().<Map<String, Object>>getList("")) {
+                    Assert.assertTrue(policy.get("startDate").toString().compareTo("2024-01-01") >= 0
+                        && policy.get("endDate").toString().compareTo("2025-12-31") <= 0, "Policy outside range: " + policy);
+                }
+                
+                String customerId = autoPolicies.jsonPath().getString("[0].customerId");
+                List<String> customerIds = client.get("/policies", Map.of("customerId", customerId)).jsonPath().getList("customerId");
+                Assert.assertTrue(customerIds.contains(customerId) && customerIds.stream().allMatch(customerId::equals),
+                    "Only policies of " + customerId + " should be returned");
+                
+                String seededId = autoPolicies.jsonPath().getString("[0].id");
+                Response created = client.post("/policies", Map.of("policyId", seededId, "type", "Pet", "status", "Active"));
+                Assert.assertEquals(created.getStatusCode(), 201);
+                Assert.assertNotEquals(created.jsonPath().getString("id"), seededId, "Created policies should get a new ID");
+                Assert.assertEquals(client.get("/policies/" + seededId).jsonPath().getString("type"), "Auto",
+                    "A client policyId should not overwrite a stored policy");
+                
+                stub.setErrorRate(0.2);
+                int errors = 0;
+                for (int i = 0; i < 50; i++) {
+                    int status = client.get("/policies/statistics").getStatusCode();
+                    Assert.assertTrue(status == 200 || status == 503, "Unexpected status " + status);
+                    errors += status == 503 ? 1 : 0;
+                }
+                Assert.assertEquals(stub.getInjectedErrorCount(), errors, "Every 503 should be an injected error");
+                Assert.assertTrue(errors > 0 && errors < 25, "About 10 of 50 requests should fail, got " + errors);
+                injectedErrors[run] = errors;
+            }
+        }
+        
+        Assert.assertEquals(injectedErrors[1], injectedErrors[0], "The same seed should inject the same errors");
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that large policy lists are streamed to a callback as typed records")
+    @Story("Stream Policies")
+    public void testStreamPolicies() throws Exception {
+        int policyCount = 20000;
+        
+        try (PolicyApiStub stub = PolicyApiStub.builder()
+                .credentials("stream.user", "secret")
+                .seedGenerated(policyCount)
+                .build()
+                .start()) {
+            ApiClient client = new ApiClient(stub.getBaseUri(), new AllureRestAssured());
+            client.authenticate("stream.user", "secret");
+            PolicyApiService service = new PolicyApiService(client);
+            
+            // Aggregate in constant memory: count, premium total and date validation per policy
+            double[] totalPremium = new double[1];
+            long[] invalidTerms = new long[1];
+            long streamed = service.forEachPolicy(policy -> {
+                totalPremium[0] += policy.getPremium();
+                if (policy.getId() == null || !policy.getEndDate().isAfter(policy.getStartDate())) {
+                    invalidTerms[0]++;
+                }
+            });
+            
+            // Read as double: the float JsonPath uses by default cannot hold totals this large to the cent
+            double statisticsTotal = service.getPolicyStatistics()
+                    .jsonPath(JsonPathConfig.jsonPathConfig().numberReturnType(JsonPathConfig.NumberReturnType.DOUBLE))
+                    .getDouble("totalPremium");
+            Assert.assertEquals(streamed, policyCount, "Every policy should be streamed");
+            Assert.assertEquals(invalidTerms[0], 0, "Every policy should have an ID and end after it starts");
+            Assert.assertEquals(totalPremium[0], statisticsTotal, 0.01,
+                "Streamed premiums should add up to the total premium");
+            
+            long autoPolicies = service.forEachPolicyByType(PolicyTypes.AUTO, policy ->
+                Assert.assertEquals(policy.getType(), PolicyTypes.AUTO, "Only Auto policies should be streamed"));
+            Assert.assertTrue(autoPolicies > 0 && autoPolicies < policyCount, "Auto policies should be a subset");
+            
+            stub.setErrorRate(1);
+            Assert.expectThrows(RuntimeException.class, () -> service.forEachPolicy(policy -> { }));
+        }
+    }
+    
+    /**
+     * Starts a server echoing its name and the Authorization header, recording the client port of each connection
+     */
+    private HttpServer startEchoServer(String name, Set<Integer> connections) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/echo", exchange -> {
+            connections.add(exchange.getRemoteAddress().getPort());
+            
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            byte[] body = String.format("{\"server\":\"%s\",\"authorization\":\"%s\"}", name, authorization)
+                    .getBytes(StandardCharsets.UTF_8);
+            
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        return server;
+    }
+    
+    /**
+     * Starts a slow login endpoint issuing numbered JWTs that expire after the given number of seconds
+     */
+    private HttpServer startLoginServer(AtomicInteger logins, int lifetimeSeconds) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/auth/login", exchange -> {
+            int login = logins.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            long exp = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + lifetimeSeconds;
+            String jwt = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                    + encoder.encodeToString(String.format("{\"sub\":\"soak.user\",\"jti\":%d,\"exp\":%d}", login, exp)
+                    .getBytes(StandardCharsets.UTF_8)) + ".signature";
+            byte[] body = String.format("{\"token\":\"%s\"}", jwt).getBytes(StandardCharsets.UTF_8);
+            
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        return server;
+    }
+    
+    private void stopServer(HttpServer server) {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+}
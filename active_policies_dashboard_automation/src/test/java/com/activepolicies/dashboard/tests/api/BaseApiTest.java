@@ -1,16 +1,12 @@
 package com.activepolicies.dashboard.tests.api;
 
 import com.activepolicies.dashboard.api.ApiClient;
+import com.activepolicies.dashboard.api.PolicyApiStub;
 import com.activepolicies.dashboard.utils.ConfigurationManager;
 import io.qameta.allure.restassured.AllureRestAssured;
-import io.restassured.RestAssured;
-import io.restassured.config.LogConfig;
-import io.restassured.config.RestAssuredConfig;
-import io.restassured.filter.log.LogDetail;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.annotations.BeforeClass;
-import org.testng.annotations.BeforeMethod;
 
 /**
  * Base class for API tests
@@ -26,28 +22,22 @@ public class BaseApiTest {
     public void setupClass() {
         config = ConfigurationManager.getInstance();
         
-        RestAssured.config = RestAssuredConfig.config()
-                .logConfig(LogConfig.logConfig().enableLoggingOfRequestAndResponseIfValidationFails(LogDetail.ALL));
+        // One client per class, safe to share between parallel test methods.
+        // Base URI, config and the Allure listener belong to the client, not global RestAssured state
+        // With api.stub.enabled the tests run offline against the in-process policies API stub
+        if (PolicyApiStub.isEnabled(config)) {
+            apiClient = new ApiClient(PolicyApiStub.getShared().getBaseUri(), new AllureRestAssured());
+        } else {
+            apiClient = new ApiClient(new AllureRestAssured());
+        }
         
-        // Add Allure listener for REST Assured
-        RestAssured.filters(new AllureRestAssured());
-        
-        // Set base URI from config
-        RestAssured.baseURI = config.getProperty("base.api.url", 
-                config.getProperty("base.url") + "/api");
-        
-        logger.info("API base URI: {}", RestAssured.baseURI);
+        logger.info("API base URI: {}", apiClient.getBaseUri());
         
         // Get admin credentials
         adminUsername = config.getProperty("admin.username");
         adminPassword = config.getProperty("admin.password");
     }
     
-    @BeforeMethod
-    public void setupMethod() {
-        apiClient = new ApiClient();
-    }
-    
     /**
      * Authenticates admin user
      */
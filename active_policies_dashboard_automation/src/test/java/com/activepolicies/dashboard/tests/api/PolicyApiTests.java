@@ -20,7 +20,7 @@ import java.util.Map;
  */
 @Feature("Policy API")
 public class PolicyApiTests extends BaseApiTest {
-
+    
     private PolicyApiService policyApiService;
     
     @BeforeClass
@@ -34,10 +34,11 @@ public class PolicyApiTests extends BaseApiTest {
     @Description("Verify that all policies can be retrieved")
     @Story("Get All Policies")
     public void testGetAllPolicies() {
-        Response response = policyApiService.getAllPolicies();
+        // Streamed, so the check does not depend on the size of the policy list
+        long policyCount = policyApiService.forEachPolicy(policy ->
+            Assert.assertNotNull(policy.getId(), "Policy ID should not be null"));
         
-        Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Assert.assertTrue(response.jsonPath().getList("").size() > 0, "Response should contain policies");
+        Assert.assertTrue(policyCount > 0, "Response should contain policies");
     }
     
     @Test
@@ -45,16 +46,10 @@ public class PolicyApiTests extends BaseApiTest {
     @Description("Verify that policies can be filtered by type")
     @Story("Filter Policies By Type")
     public void testGetPoliciesByType() {
-        Response response = policyApiService.getPoliciesByType(PolicyTypes.AUTO);
-        
-        Assert.assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        
         // Verify all returned policies are of type AUTO
-        response.jsonPath().getList("").forEach(policy -> {
-            Map<String, Object> policyMap = (Map<String, Object>) policy;
-            Assert.assertEquals(policyMap.get("type"), PolicyTypes.AUTO, 
-                "Policy type should be " + PolicyTypes.AUTO);
-        });
+        policyApiService.forEachPolicyByType(PolicyTypes.AUTO, policy ->
+            Assert.assertEquals(policy.getType(), PolicyTypes.AUTO, 
+                "Policy type should be " + PolicyTypes.AUTO));
     }
     
     @Test
@@ -79,7 +74,7 @@ public class PolicyApiTests extends BaseApiTest {
     }
     
     @Test
-    @Severity(SeverityLevel.HIGH)
+    @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that a new policy can be created")
     @Story("Create Policy")
     public void testCreatePolicy() {
@@ -105,7 +100,7 @@ public class PolicyApiTests extends BaseApiTest {
     }
     
     @Test
-    @Severity(SeverityLevel.HIGH)
+    @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that a policy can be updated")
     @Story("Update Policy")
     public void testUpdatePolicy() {
@@ -140,7 +135,7 @@ public class PolicyApiTests extends BaseApiTest {
     }
     
     @Test
-    @Severity(SeverityLevel.HIGH)
+    @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that a policy can be deleted")
     @Story("Delete Policy")
     public void testDeletePolicy() {
@@ -1,23 +1,33 @@
 package com.activepolicies.dashboard.tests.db;
 
 import com.activepolicies.dashboard.db.DatabaseManager;
+import com.activepolicies.dashboard.db.EmbeddedDatabase;
+import com.activepolicies.dashboard.db.PolicyReadCache;
+import com.activepolicies.dashboard.db.QueryMetrics;
+import com.activepolicies.dashboard.db.QueryPlanInspector;
 import com.activepolicies.dashboard.utils.ConfigurationManager;
+import io.qameta.allure.Attachment;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 
 import java.sql.SQLException;
 
 /**
- * Base class for database tests
+ * Base class for database tests.
+ * With db.test.isolation=rollback every test method runs inside its own transaction
+ * that is rolled back afterwards, so tests need no cleanup and can run in parallel
+ * on pooled connections without seeing each other's changes.
  */
 public class BaseDatabaseTest {
     protected static final Logger logger = LogManager.getLogger(BaseDatabaseTest.class);
     protected ConfigurationManager config;
     protected DatabaseManager dbManager;
+    protected boolean rollbackIsolation;
     
     /**
      * Setup before class
@@ -26,16 +36,22 @@ public class BaseDatabaseTest {
     public void setupClass() {
         config = ConfigurationManager.getInstance();
         dbManager = new DatabaseManager();
+        rollbackIsolation = "rollback".equalsIgnoreCase(config.getProperty("db.test.isolation", "none"));
     }
     
     /**
-     * Setup before each test method
+     * Setup before each test method. With db.pool.enabled this reuses pooled connections
+     * instead of opening a new physical connection per test.
      * @throws SQLException if database connection fails
      */
     @BeforeMethod
     public void setupMethod() throws SQLException {
         try {
             dbManager.openConnection();
+            
+            if (rollbackIsolation) {
+                dbManager.beginIsolatedTransaction();
+            }
         } catch (SQLException e) {
             logger.error("Failed to open database connection", e);
             throw e;
@@ -43,18 +59,64 @@ public class BaseDatabaseTest {
     }
     
     /**
-     * Cleanup after each test method
+     * Cleanup after each test method. Rolls back the test's isolated transaction, if any.
      */
-    @AfterMethod
+    @AfterMethod(alwaysRun = true)
     public void cleanupMethod() {
+        if (dbManager == null) {
+            return;
+        }
+        
+        dbManager.rollbackIsolatedTransaction();
         dbManager.closeConnection();
     }
     
     /**
      * Cleanup after class
      */
-    @AfterClass
-    public void cleanupClass() {
-        // Perform any necessary cleanup
+    @AfterClass(alwaysRun = true)
+    public void cleanupClass() throws SQLException {
+        if (dbManager != null && EmbeddedDatabase.isEnabled(config)) {
+            // Hand the next test class the seeded data set, whatever this class committed
+            new EmbeddedDatabase(dbManager).restore(EmbeddedDatabase.BASELINE_SNAPSHOT);
+        }
+        
+        if (dbManager != null && dbManager.getPoolMetrics() != null) {
+            logger.info("Connection pool metrics: {}", dbManager.getPoolMetrics());
+        }
+        if (dbManager != null) {
+            logger.info("Statement cache: {}", dbManager.getStatementCacheStats());
+            PolicyReadCache readCache = PolicyReadCache.getInstance(config);
+            if (readCache != null) {
+                logger.info("Policy read cache: {}", readCache.getStats());
+            }
+        }
+    }
+    
+    /**
+     * Cleanup after suite
+     */
+    @AfterSuite(alwaysRun = true)
+    public void cleanupSuite() {
+        String querySummary = attachQueryMetrics();
+        logger.info("Database query metrics:\n{}", querySummary);
+        logger.info("Database query plans:\n{}", attachQueryPlans());
+        DatabaseManager.shutdownPools();
+    }
+    
+    /**
+     * Attach the per-statement query metrics summary to Allure report
+     */
+    @Attachment(value = "Database query metrics", type = "text/plain")
+    private String attachQueryMetrics() {
+        return QueryMetrics.formatSummary();
+    }
+    
+    /**
+     * Attach the query plans with findings to Allure report
+     */
+    @Attachment(value = "Database query plans", type = "text/plain")
+    private String attachQueryPlans() {
+        return QueryPlanInspector.formatReport();
     }
 }
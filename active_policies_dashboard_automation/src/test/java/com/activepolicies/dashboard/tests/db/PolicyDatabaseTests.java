@@ -1,7 +1,23 @@
 package com.activepolicies.dashboard.tests.db;
 
 import com.activepolicies.dashboard.constants.PolicyTypes;
+import com.activepolicies.dashboard.db.BatchInsertResult;
+import com.activepolicies.dashboard.db.DatabaseManager;
+import com.activepolicies.dashboard.db.FingerprintStore;
+import com.activepolicies.dashboard.db.PolicyBatch;
 import com.activepolicies.dashboard.db.PolicyDatabaseService;
+import com.activepolicies.dashboard.db.PolicyPageIterator;
+import com.activepolicies.dashboard.db.PolicySoakHarness;
+import com.activepolicies.dashboard.db.PolicyStatistics;
+import com.activepolicies.dashboard.db.PolicyVerificationReport;
+import com.activepolicies.dashboard.db.QueryMetrics;
+import com.activepolicies.dashboard.db.QueryPlan;
+import com.activepolicies.dashboard.db.QueryPlanInspector;
+import com.activepolicies.dashboard.db.ResultRow;
+import com.activepolicies.dashboard.db.RowChangeSet;
+import com.activepolicies.dashboard.db.RowHashStore;
+import com.activepolicies.dashboard.db.TableFingerprint;
+import com.activepolicies.dashboard.utils.PolicyDataGenerator;
 import io.qameta.allure.Description;
 import io.qameta.allure.Feature;
 import io.qameta.allure.Severity;
@@ -11,17 +27,27 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Tests for policy database operations
  */
 @Feature("Database Validation")
 public class PolicyDatabaseTests extends BaseDatabaseTest {
-
+    
     private PolicyDatabaseService policyDbService;
     
     /**
@@ -43,6 +69,286 @@ public class PolicyDatabaseTests extends BaseDatabaseTest {
         logger.info("Retrieved {} policies from database", policies.size());
     }
     
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that streaming all policies visits every row in the table")
+    @Story("Stream All Policies")
+    public void testStreamAllPolicies() throws SQLException {
+        int expectedCount = policyDbService.getPolicyCount();
+        
+        long streamedCount = policyDbService.forEachPolicy(policy ->
+            Assert.assertNotNull(policy.get("policy_id"), "Streamed policy should have an ID"));
+        
+        Assert.assertEquals(streamedCount, expectedCount, "Streamed row count should match table row count");
+        
+        try (Stream<ResultRow> policies = policyDbService.streamAllPolicies()) {
+            Assert.assertEquals(policies.count(), (long) expectedCount, 
+                "Stream should contain every policy");
+        }
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that the columnar policy batch agrees with database aggregates")
+    @Story("Columnar Policy Batch")
+    public void testLoadPolicyBatch() throws SQLException {
+        PolicyBatch batch = policyDbService.loadPolicyBatch();
+        
+        Assert.assertEquals(batch.size(), policyDbService.getPolicyCount(), 
+            "Batch should contain every policy");
+        Assert.assertEquals(batch.filterByType(PolicyTypes.AUTO).cardinality(), 
+            policyDbService.getPolicyCountByType(PolicyTypes.AUTO), 
+            "Batch AUTO count should match database count");
+        Assert.assertEquals(batch.sumPremium(batch.selectAll()), policyDbService.getTotalPremium(), 0.01, 
+            "Batch premium total should match database total");
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that batch premium aggregates skip unknown premiums like SQL SUM and AVG")
+    @Story("Columnar Policy Batch")
+    public void testPolicyBatchSkipsUnknownPremiums() {
+        PolicyBatch batch = PolicyBatch.builder(4)
+                .add("POL-1", PolicyTypes.AUTO, 100.0, null, null, "A", "a@example.com", "Active")
+                .add("POL-2", PolicyTypes.AUTO, Double.NaN, null, null, "B", "b@example.com", "Active")
+                .add("POL-3", PolicyTypes.HOME, 300.0, null, null, "C", "c@example.com", "Active")
+                .build();
+        
+        Assert.assertEquals(batch.sumPremium(batch.selectAll()), 400.0, 0.001, "Unknown premium should not count towards the total");
+        Assert.assertEquals(batch.averagePremium(batch.selectAll()), 200.0, 0.001, "Average should cover known premiums only");
+        Assert.assertEquals(batch.premiumByType(batch.selectAll()).get(PolicyTypes.AUTO), 100.0, 0.001, 
+            "Type total should skip unknown premiums");
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that keyset pagination visits every policy once in ID order and can resume")
+    @Story("Paginate Policies")
+    public void testPageAllPolicies() throws SQLException {
+        int expectedCount = policyDbService.getPolicyCount();
+        List<Long> policyIds = new ArrayList<>();
+        long resumeAfter = Long.MIN_VALUE;
+        
+        try (PolicyPageIterator pages = policyDbService.pageAllPolicies(3).prefetch(true)) {
+            while (pages.hasNext()) {
+                List<Map<String, Object>> page = pages.next();
+                Assert.assertTrue(page.size() <= 3, "Page should not exceed page size");
+                for (Map<String, Object> policy : page) {
+                    policyIds.add(((Number) policy.get("policy_id")).longValue());
+                }
+                if (pages.getPagesReturned() == 1) {
+                    resumeAfter = pages.getLastPolicyId();
+                }
+            }
+        }
+        
+        Assert.assertEquals(policyIds.size(), expectedCount, "Pagination should visit every policy");
+        for (int i = 1; i < policyIds.size(); i++) {
+            Assert.assertTrue(policyIds.get(i) > policyIds.get(i - 1), "Policies should be in ascending ID order");
+        }
+        
+        if (expectedCount > 3) {
+            int resumedCount = 0;
+            try (PolicyPageIterator pages = policyDbService.pageAllPolicies(3).startAfter(resumeAfter)) {
+                while (pages.hasNext()) {
+                    resumedCount += pages.next().size();
+                }
+            }
+            Assert.assertEquals(resumedCount, expectedCount - 3, "Resumed pagination should skip the first page");
+        }
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that query plans flag full table scans and not primary key lookups")
+    @Story("Query Plans")
+    public void testExplainPlan() throws SQLException {
+        QueryPlan scanPlan = dbManager.explainPlan(
+                "SELECT * FROM policies WHERE customer_email = ?", Collections.singletonList("nobody@example.com"));
+        QueryPlan lookupPlan = dbManager.explainPlan(
+                "SELECT * FROM policies WHERE policy_id = ?", Collections.singletonList(1L));
+        
+        Assert.assertTrue(scanPlan.hasFinding(QueryPlan.Finding.FULL_SCAN), "Unindexed filter should be a full scan: " + scanPlan);
+        Assert.assertFalse(lookupPlan.hasFinding(QueryPlan.Finding.FULL_SCAN), "Primary key lookup should use the index: " + lookupPlan);
+        Assert.assertFalse(scanPlan.isViolation(), "No row budget is configured");
+        Assert.assertFalse(scanPlan.getPlanText().isEmpty(), "Plan text should be captured");
+        
+        if (Boolean.parseBoolean(config.getProperty("db.plan.inspect", "false"))) {
+            String query = "SELECT * FROM policies WHERE customer_email = ? AND status = ?";
+            dbManager.executeQuery(query, Arrays.asList("nobody@example.com", "Active"));
+            Assert.assertNotNull(QueryPlanInspector.getInspectedPlan(query), 
+                "Executed statement's plan should be kept for slow-query logging");
+        }
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that a statement over the row budget is reported as a violation on every execution, not only the first")
+    @Story("Query Plans")
+    public void testPlanViolationOnEveryExecution() throws SQLException {
+        QueryPlanInspector inspector = new QueryPlanInspector(dbManager.getDialect(), true, 1);
+        String query = "SELECT policy_id FROM policies WHERE customer_name = ? AND status <> ?";
+        
+        try (Connection conn = DriverManager.getConnection(config.getProperty("db.url"), 
+                config.getProperty("db.username"), config.getProperty("db.password"))) {
+            for (int execution = 1; execution <= 3; execution++) {
+                QueryPlan plan = inspector.inspectOnce(conn, query, Arrays.asList("Nobody", "Cancelled"));
+                Assert.assertNotNull(plan, "Execution " + execution + " should get the statement's plan");
+                Assert.assertTrue(plan.isViolation(), "Execution " + execution + " should exceed the row budget: " + plan);
+            }
+        }
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that an aggregate is budgeted on the rows it reads, not the rows it returns")
+    @Story("Query Plans")
+    public void testAggregatePlanExceedsRowBudget() throws SQLException {
+        QueryPlanInspector inspector = new QueryPlanInspector(dbManager.getDialect(), true, 1);
+        String query = "SELECT policy_type, COUNT(*) AS policies FROM policies GROUP BY policy_type";
+        
+        try (Connection conn = DriverManager.getConnection(config.getProperty("db.url"), 
+                config.getProperty("db.username"), config.getProperty("db.password"))) {
+            QueryPlan plan = inspector.inspect(conn, query, null);
+            Assert.assertTrue(plan.getActualRows() > PolicyTypes.TYPES.size(), 
+                "Aggregate should count the policies it reads, not the groups it returns: " + plan);
+            Assert.assertTrue(plan.isViolation(), "Aggregate should exceed the row budget: " + plan);
+        }
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that a short read/write soak completes without deadlocks or errors")
+    @Story("Soak Testing")
+    public void testPolicySoak() throws SQLException {
+        PolicySoakHarness.SoakReport report = PolicySoakHarness.builder(dbManager)
+                .threads(4)
+                .duration(Duration.ofSeconds(2))
+                .rollback(true)
+                .build()
+                .run();
+        
+        Assert.assertTrue(report.getTotalOperations() > 0, "Soak should run operations");
+        Assert.assertTrue(report.getOperation(PolicySoakHarness.Operation.READ_BY_TYPE).getCount() > 0,
+                "Soak should run type reads");
+        Assert.assertTrue(report.getOperation(PolicySoakHarness.Operation.CREATE).getCount() > 0,
+                "Soak should run creates");
+        Assert.assertEquals(report.getFailures(PolicySoakHarness.Failure.DEADLOCK), 0, "Soak should not deadlock");
+        Assert.assertEquals(report.getFailures(PolicySoakHarness.Failure.ERROR), 0, "Soak should not fail");
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that table fingerprints are stable, detect changes and persist across runs")
+    @Story("Table Fingerprints")
+    public void testTableFingerprint() throws Exception {
+        TableFingerprint before = policyDbService.getPoliciesFingerprint();
+        
+        Assert.assertTrue(before.matches(policyDbService.getPoliciesFingerprint()), "Fingerprint should be stable");
+        Assert.assertEquals(before.getRowCount(), policyDbService.getPolicyCount(), "Fingerprint should count every policy");
+        Assert.assertEquals(policyDbService.getPoliciesFingerprintByType(PolicyTypes.AUTO).getRowCount(),
+                policyDbService.getPolicyCountByType(PolicyTypes.AUTO), "Filtered fingerprint should count AUTO policies");
+        
+        Map<String, Object> policy = policyDbService.getAllPolicies().get(0);
+        List<String> columns = Arrays.asList("policy_id", "policy_type", "premium", "customer_email");
+        TableFingerprint single = dbManager.fingerprintTable("policies", columns,
+                "policy_id = ?", Collections.singletonList(policy.get("policy_id")));
+        long clientHash = TableFingerprint.rowHash(String.valueOf(policy.get("policy_id")),
+                String.valueOf(policy.get("policy_type")), String.valueOf(policy.get("premium")),
+                policy.get("customer_email") == null ? null : String.valueOf(policy.get("customer_email")));
+        Assert.assertEquals(single.getHashSum(), clientHash, "Server-side row hash should match the client-side hash");
+        
+        Path storeFile = Files.createTempDirectory("verification-state").resolve("fingerprints.properties");
+        FingerprintStore store = new FingerprintStore(storeFile);
+        Assert.assertFalse(store.isUnchanged("policies", before), "Nothing should be recorded yet");
+        store.record("policies", before);
+        Assert.assertTrue(new FingerprintStore(storeFile).isUnchanged("policies", before),
+                "Recorded fingerprint should survive reloading the store");
+        
+        Map<String, Object> policyData = new HashMap<>();
+        policyData.put("type", PolicyTypes.LIFE);
+        policyData.put("startDate", "2024-03-01");
+        policyData.put("endDate", "2025-03-01");
+        policyData.put("premium", 990.00);
+        policyData.put("customerName", "Fingerprint Test");
+        policyData.put("customerEmail", "fingerprint.test@example.com");
+        policyData.put("status", "Active");
+        policyDbService.createPolicy(policyData);
+        
+        Assert.assertFalse(store.isUnchanged("policies", policyDbService.getPoliciesFingerprint()),
+                "New policy should change the fingerprint");
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that row hash reconciliation reports only added, changed and deleted policies")
+    @Story("Incremental Reconciliation")
+    public void testDetectPolicyChanges() throws Exception {
+        RowHashStore store = new RowHashStore(Files.createTempDirectory("verification-state").resolve("policies.rowhashes"));
+        Map<String, Object> policyData = new HashMap<>();
+        policyData.put("type", PolicyTypes.LIFE);
+        policyData.put("startDate", "2024-05-01");
+        policyData.put("endDate", "2025-05-01");
+        policyData.put("premium", 720.00);
+        policyData.put("customerName", "Reconciliation Test");
+        policyData.put("customerEmail", "reconciliation.test@example.com");
+        policyData.put("status", "Active");
+        String updatedId = policyDbService.createPolicy(policyData);
+        String deletedId = policyDbService.createPolicy(policyData);
+        
+        try (RowChangeSet changes = policyDbService.detectPolicyChanges(store)) {
+            Assert.assertEquals(changes.getAddedIds().size(), policyDbService.getPolicyCount(), 
+                    "First run should report every policy as added");
+            changes.commit();
+        }
+        try (RowChangeSet changes = policyDbService.detectPolicyChanges(store)) {
+            Assert.assertTrue(changes.isEmpty(), "Unchanged table should report no changes: " + changes);
+            changes.commit();
+        }
+        
+        Map<String, Object> update = new HashMap<>();
+        update.put("premium", 750.00);
+        policyDbService.updatePolicy(updatedId, update);
+        policyDbService.deletePolicy(deletedId);
+        String addedId = policyDbService.createPolicy(policyData);
+        
+        try (RowChangeSet changes = policyDbService.detectPolicyChanges(store)) {
+            Assert.assertEquals(changes.getChangedIds(), Collections.singletonList(updatedId), "Updated policy should be changed");
+            Assert.assertEquals(changes.getDeletedIds(), Collections.singletonList(deletedId), "Deleted policy should be reported");
+            Assert.assertEquals(changes.getAddedIds(), Collections.singletonList(addedId), "Created policy should be added");
+            Assert.assertEquals(changes.getIdsToVerify(), Arrays.asList(updatedId, addedId), "Changed and added policies need verifying");
+            changes.commit(Collections.singletonList(addedId));
+        }
+        try (RowChangeSet changes = policyDbService.detectPolicyChanges(store)) {
+            Assert.assertEquals(changes.getIdsToVerify(), Collections.singletonList(addedId), 
+                    "Policy that failed verification should be verified again");
+        }
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that generated policy data is reproducible for a seed and loads through batched inserts")
+    @Story("Synthetic Policy Data")
+    public void testGeneratePolicies() throws Exception {
+        PolicyDataGenerator generator = PolicyDataGenerator.builder().seed(7).chunkSize(250).threads(4).build();
+        List<Map<String, Object>> policies = generator.generate(1000);
+        
+        Assert.assertEquals(policies.size(), 1000, "Generator should produce the requested count");
+        Assert.assertEquals(policies, PolicyDataGenerator.builder().seed(7).chunkSize(250).threads(1).build().generate(1000), 
+            "Same seed should generate the same policies regardless of thread count");
+        for (Map<String, Object> policy : policies) {
+            Assert.assertTrue(PolicyTypes.TYPES.contains(policy.get("type")), "Policy type should be a known type");
+            Assert.assertTrue((Double) policy.get("premium") > 0, "Premium should be positive");
+        }
+        
+        int countBefore = policyDbService.getPolicyCount();
+        long written = generator.generate(1000, PolicyDataGenerator.databaseSink(policyDbService, 200));
+        
+        Assert.assertEquals(written, 1000L, "Every generated policy should be written");
+        Assert.assertEquals(policyDbService.getPolicyCount(), countBefore + 1000, 
+            "Generated policies should be inserted");
+    }
+    
     @Test
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that policies can be filtered by type in database")
@@ -61,7 +367,37 @@ public class PolicyDatabaseTests extends BaseDatabaseTest {
     }
     
     @Test
-    @Severity(SeverityLevel.HIGH)
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that policy reads are cached and invalidated by writes")
+    @Story("Policy Read Cache")
+    public void testPolicyReadCache() throws SQLException {
+        boolean cacheEnabled = Boolean.parseBoolean(config.getProperty("db.cache.enabled", "false"));
+        String policyId = String.valueOf(policyDbService.getAllPolicies().get(0).get("policy_id"));
+        long hitsBefore = policyDbService.getCacheStats().getHits();
+        
+        Map<String, Object> first = policyDbService.getPolicyById(policyId);
+        Map<String, Object> second = policyDbService.getPolicyById(policyId);
+        Map<String, Object> raw = policyDbService.bypassCache().getPolicyById(policyId);
+        
+        Assert.assertEquals(second, first, "Repeated reads should return the same policy");
+        Assert.assertEquals(raw, first, "Bypassed read should match the cached policy");
+        Assert.assertNotSame(raw, first, "Bypassed read should go to the database");
+        
+        if (cacheEnabled) {
+            Assert.assertSame(second, first, "Second read should be served from the cache");
+            Assert.assertTrue(policyDbService.getCacheStats().getHits() > hitsBefore, "Cache hits should be counted");
+            logger.info("Policy read cache: {}", policyDbService.getCacheStats());
+        }
+        
+        Map<String, Object> policyData = new HashMap<>();
+        policyData.put("premium", first.get("premium"));
+        policyDbService.updatePolicy(policyId, policyData);
+        
+        Assert.assertNotSame(policyDbService.getPolicyById(policyId), first, "Update should invalidate the cached policy");
+    }
+    
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that a policy can be created in database")
     @Story("Create Policy")
     public void testCreatePolicy() throws SQLException {
@@ -94,7 +430,46 @@ public class PolicyDatabaseTests extends BaseDatabaseTest {
     }
     
     @Test
-    @Severity(SeverityLevel.HIGH)
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that policies can be created in a JDBC batch")
+    @Story("Create Policies In Batch")
+    public void testCreatePolicies() throws SQLException {
+        List<Map<String, Object>> policies = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> policyData = new HashMap<>();
+            policyData.put("type", PolicyTypes.PET);
+            policyData.put("startDate", "2025-04-01");
+            policyData.put("endDate", "2026-04-01");
+            policyData.put("premium", 300.00 + i);
+            policyData.put("customerName", "Batch User " + i);
+            policyData.put("customerEmail", "batch.user" + i + "@example.com");
+            policyData.put("status", "Active");
+            policies.add(policyData);
+        }
+        
+        // Create policies with a batch size smaller than the row count to exercise chunking
+        BatchInsertResult result = policyDbService.createPolicies(policies, 2);
+        
+        Assert.assertEquals(result.getRowCount(), 5, "Five rows should be inserted");
+        Assert.assertEquals(result.getGeneratedIds().size(), 5, "Five policy IDs should be returned");
+        logger.info("Batch insert throughput: {}", result);
+        
+        // Verify generated IDs are returned in insertion order
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> createdPolicy = policyDbService.getPolicyById(result.getGeneratedIds().get(i));
+            Assert.assertNotNull(createdPolicy, "Created policy should exist in database");
+            Assert.assertEquals(createdPolicy.get("customer_name"), "Batch User " + i, 
+                "Generated IDs should follow insertion order");
+        }
+        
+        // Cleanup
+        for (String policyId : result.getGeneratedIds()) {
+            policyDbService.deletePolicy(policyId);
+        }
+    }
+    
+    @Test
+    @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that a policy can be updated in database")
     @Story("Update Policy")
     public void testUpdatePolicy() throws SQLException {
@@ -134,7 +509,7 @@ public class PolicyDatabaseTests extends BaseDatabaseTest {
     }
     
     @Test
-    @Severity(SeverityLevel.HIGH)
+    @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that a policy can be deleted from database")
     @Story("Delete Policy")
     public void testDeletePolicy() throws SQLException {
@@ -183,6 +558,82 @@ public class PolicyDatabaseTests extends BaseDatabaseTest {
         logger.info("Policy statistics: {}", statistics);
     }
     
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that per-type statistics add up to the grand total")
+    @Story("Get Policy Statistics")
+    public void testGetPolicyStatisticsByType() throws SQLException {
+        PolicyStatistics statistics = policyDbService.getPolicyStatisticsByType();
+        
+        long count = 0;
+        double totalPremium = 0;
+        for (PolicyStatistics.TypeStatistics typeStatistics : statistics.getByType().values()) {
+            count += typeStatistics.getCount();
+            totalPremium += typeStatistics.getTotalPremium();
+            
+            if (typeStatistics.getCount() > 0 && !Double.isNaN(typeStatistics.getMinPremium())) {
+                Assert.assertTrue(typeStatistics.getMinPremium() <= typeStatistics.getAveragePremium() 
+                    && typeStatistics.getAveragePremium() <= typeStatistics.getMaxPremium(), 
+                    "Average premium should lie between min and max for " + typeStatistics.getPolicyType());
+            }
+        }
+        
+        Assert.assertEquals(statistics.getTotal().getCount(), count, "Grand total count should match per-type counts");
+        Assert.assertEquals(statistics.getTotal().getTotalPremium(), totalPremium, 0.01, 
+            "Grand total premium should match per-type totals");
+        Assert.assertEquals(statistics.getType("NO_SUCH_TYPE").getCount(), 0L, 
+            "Unknown type should have no policies");
+        
+        logger.info("Policy statistics by type: {}", statistics);
+    }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that independent read checks run through the parallel executor return every result in order")
+    @Story("Parallel Read Checks")
+    public void testExecuteParallel() throws SQLException {
+        Map<String, DatabaseManager.QueryTask<Object>> checks = new LinkedHashMap<>();
+        checks.put("statistics", policyDbService::getPolicyStatisticsByType);
+        checks.put("autoCount", () -> policyDbService.getPolicyCountByType(PolicyTypes.AUTO));
+        checks.put("dateRange", () -> policyDbService.getPoliciesByDateRange("2020-01-01", "2030-12-31"));
+        checks.put("count", policyDbService::getPolicyCount);
+        
+        Map<String, Object> results = dbManager.executeParallel(checks, 2);
+        
+        Assert.assertEquals(new ArrayList<>(results.keySet()), new ArrayList<>(checks.keySet()), 
+            "Results should be returned in task order");
+        PolicyStatistics statistics = (PolicyStatistics) results.get("statistics");
+        Assert.assertEquals(results.get("count"), (int) statistics.getTotal().getCount(), 
+            "Parallel count should match statistics");
+        Assert.assertEquals(results.get("autoCount"), (int) statistics.getType(PolicyTypes.AUTO).getCount(), 
+            "Parallel AUTO count should match statistics");
+    }
+    
+    @Test
+    @Severity(SeverityLevel.MINOR)
+    @Description("Verify that executed statements are recorded in query metrics under their normalized SQL")
+    @Story("Query Metrics")
+    public void testQueryMetrics() throws SQLException {
+        Assert.assertEquals(QueryMetrics.normalize("SELECT * FROM  policies WHERE policy_id IN (?, ?, ?) AND status = 'Active'"), 
+            "SELECT * FROM policies WHERE policy_id IN (?...) AND status = ?", "SQL should be normalized");
+        
+        String query = "SELECT * FROM policies WHERE policy_type = ? AND premium > ?";
+        long before = QueryMetrics.forStatement(query).getLatency().getCount();
+        
+        dbManager.executeQuery(query, List.of(PolicyTypes.AUTO, 0));
+        
+        QueryMetrics.StatementMetrics metrics = QueryMetrics.forStatement(query);
+        Assert.assertEquals(metrics.getLatency().getCount(), before + 1, "Execution should be recorded");
+        Assert.assertTrue(QueryMetrics.formatSummary().contains(metrics.getSql()), 
+            "Summary should list the statement");
+        
+        String countQuery = "SELECT COUNT(*) AS row_count FROM policies";
+        long countsBefore = QueryMetrics.forStatement(countQuery).getLatency().getCount();
+        policyDbService.getPolicyCount();
+        Assert.assertTrue(QueryMetrics.forStatement(countQuery).getLatency().getCount() > countsBefore, 
+            "Policy count should be recorded");
+    }
+    
     @Test
     @Severity(SeverityLevel.NORMAL)
     @Description("Verify policy data integrity between UI and database")
@@ -212,4 +663,45 @@ public class PolicyDatabaseTests extends BaseDatabaseTest {
         // Cleanup
         policyDbService.deletePolicy(policyId);
     }
+    
+    @Test
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify bulk UI-to-database verification reports mismatches and missing policies")
+    @Story("Data Integrity Validation")
+    public void testVerifyPolicies() throws SQLException {
+        Map<String, Map<String, Object>> uiPolicies = new LinkedHashMap<>();
+        
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> policyData = new HashMap<>();
+            policyData.put("type", PolicyTypes.HOME);
+            policyData.put("startDate", "2025-09-01");
+            policyData.put("endDate", "2026-09-01");
+            policyData.put("premium", 300.00 + i);
+            policyData.put("customerName", "Bulk Verify " + i);
+            policyData.put("customerEmail", "bulk.verify" + i + "@example.com");
+            policyData.put("status", "Active");
+            
+            uiPolicies.put(policyDbService.createPolicy(policyData), policyData);
+        }
+        
+        PolicyVerificationReport report = policyDbService.verifyPolicies(uiPolicies, 2);
+        Assert.assertTrue(report.isSuccessful(), "Policies should match: " + report.getMismatches());
+        Assert.assertEquals(report.getVerifiedCount(), 5, "Every policy should be verified");
+        Assert.assertEquals(report.getQueryCount(), 3, "Policies should be fetched in chunks of two");
+        
+        String changedId = uiPolicies.keySet().iterator().next();
+        uiPolicies.put(changedId, new HashMap<>(uiPolicies.get(changedId)));
+        uiPolicies.get(changedId).put("status", "Cancelled");
+        uiPolicies.put("-1", new HashMap<>());
+        
+        report = policyDbService.verifyPolicies(uiPolicies);
+        Assert.assertEquals(report.getMismatches().size(), 1, "Changed status should be reported");
+        Assert.assertEquals(report.getMismatches().get(0).getField(), "status", "Mismatched field should be status");
+        Assert.assertEquals(report.getMissingPolicyIds(), List.of("-1"), "Unknown policy should be reported missing");
+        Assert.assertEquals(report.getQueryCount(), 1, "All policies should be fetched in one query");
+        
+        for (String policyId : uiPolicies.keySet()) {
+            policyDbService.deletePolicy(policyId);
+        }
+    }
 }